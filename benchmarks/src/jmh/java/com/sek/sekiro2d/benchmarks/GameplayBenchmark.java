@@ -0,0 +1,274 @@
+package com.sek.sekiro2d.benchmarks;
+
+import com.artemis.Aspect;
+import com.artemis.BaseSystem;
+import com.artemis.ComponentMapper;
+import com.artemis.World;
+import com.artemis.utils.IntBag;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.sek.sekiro2d.AnimationSet;
+import com.sek.sekiro2d.GameSimulation;
+import com.sek.sekiro2d.component.Health;
+import com.sek.sekiro2d.component.Sprite;
+import com.sek.sekiro2d.component.Velocity;
+import com.sek.sekiro2d.component.Weapon;
+import com.sek.sekiro2d.system.AnimationSystem;
+import com.sek.sekiro2d.system.CombatSystem;
+import com.sek.sekiro2d.system.EffectSystem;
+import com.sek.sekiro2d.system.EnemyAiSystem;
+import com.sek.sekiro2d.system.MovementSystem;
+import com.sek.sekiro2d.system.PhysicsSystem;
+import com.sek.sekiro2d.system.WeaponSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick cost of each gameplay system on its own, plus a whole tick. Every state builds a
+ * {@link GameSimulation} with {@code entityCount} enemies and placeholder sprites, lets the fight
+ * develop for a few seconds of game time, then leaves only the systems under test enabled.
+ * <br>
+ * {@code workerThreads} defaults to single-threaded; to see how the parallel systems scale, run e.g.
+ * {@code java -jar benchmarks/build/libs/*-jmh.jar GameplayBenchmark.tick -p workerThreads=0,1,3,7}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameplayBenchmark {
+    private static final int SETTLE_TICKS = 360;
+
+    @State(Scope.Thread)
+    public abstract static class WorldState {
+        @Param({"10", "100", "1000", "10000"})
+        public int entityCount;
+
+        @Param({"0"})
+        public int workerThreads;
+
+        GameSimulation simulation;
+        World world;
+
+        @Setup
+        public void setUp() {
+            simulation = new GameSimulation(entityCount, playerClips(), enemyClips(), GameSimulation.DEFAULT_SEED);
+            simulation.setWorkerThreads(workerThreads);
+            world = simulation.getWorld();
+            // The player can't die and never attacks, so every enemy stays alive.
+            world.getMapper(Health.class).get(simulation.getPlayer()).set(Integer.MAX_VALUE);
+            for (int i = 0; i < SETTLE_TICKS; i++) {
+                simulation.step();
+            }
+            world.setDelta(GameSimulation.STEP);
+            prepare();
+
+            Class<? extends BaseSystem>[] types = systems();
+            if (types == null) return;
+            for (BaseSystem system : world.getSystems()) {
+                system.setEnabled(false);
+            }
+            for (Class<? extends BaseSystem> type : types) {
+                world.getSystem(type).setEnabled(true);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            simulation.dispose();
+        }
+
+        /** Adjusts the settled world before the benchmarked systems take over. */
+        void prepare() {
+        }
+
+        /** The systems to leave enabled, or null for all of them. */
+        abstract Class<? extends BaseSystem>[] systems();
+    }
+
+    public static class TickState extends WorldState {
+        @Override
+        Class<? extends BaseSystem>[] systems() {
+            return null;
+        }
+    }
+
+    public static class EnemyAiState extends WorldState {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<? extends BaseSystem>[] systems() {
+            return new Class[] {EnemyAiSystem.class};
+        }
+    }
+
+    public static class CombatState extends WorldState {
+        IntBag armed;
+        ComponentMapper<Weapon> weapons;
+
+        @Override
+        void prepare() {
+            removeDamage(world);
+            armed = world.getAspectSubscriptionManager().get(Aspect.all(Weapon.class)).getEntities();
+            weapons = world.getMapper(Weapon.class);
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<? extends BaseSystem>[] systems() {
+            // Contacts come from the physics step, and effects are spawned per hit, so both are part
+            // of the cost of a collision.
+            return new Class[] {PhysicsSystem.class, CombatSystem.class, EffectSystem.class};
+        }
+
+        /** Puts every weapon mid-swing and unspent, so each tick checks every swing for hits. */
+        void arm() {
+            int[] ids = armed.getData();
+            for (int i = 0, n = armed.size(); i < n; i++) {
+                Weapon weapon = weapons.get(ids[i]);
+                weapon.attacking = true;
+                weapon.hasHit = false;
+            }
+        }
+    }
+
+    public static class WeaponState extends WorldState {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<? extends BaseSystem>[] systems() {
+            return new Class[] {WeaponSystem.class};
+        }
+    }
+
+    public static class MovementState extends WorldState {
+        IntBag moving;
+        ComponentMapper<Velocity> velocities;
+        int ticks;
+
+        @Override
+        void prepare() {
+            moving = world.getAspectSubscriptionManager().get(Aspect.all(Velocity.class)).getEntities();
+            velocities = world.getMapper(Velocity.class);
+            int[] ids = moving.getData();
+            for (int i = 0, n = moving.size(); i < n; i++) {
+                Velocity velocity = velocities.get(ids[i]);
+                velocity.x = (i & 1) == 0 ? velocity.speed : -velocity.speed;
+            }
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<? extends BaseSystem>[] systems() {
+            return new Class[] {MovementSystem.class};
+        }
+
+        /** Reverses everyone now and then so entities pace back and forth instead of drifting off. */
+        void turnAroundPeriodically() {
+            if ((++ticks & 255) != 0) return;
+            int[] ids = moving.getData();
+            for (int i = 0, n = moving.size(); i < n; i++) {
+                Velocity velocity = velocities.get(ids[i]);
+                velocity.x = -velocity.x;
+            }
+        }
+    }
+
+    public static class SpriteState extends WorldState {
+        IntBag drawn;
+        ComponentMapper<Sprite> sprites;
+
+        @Override
+        void prepare() {
+            drawn = world.getAspectSubscriptionManager().get(Aspect.all(Sprite.class)).getEntities();
+            sprites = world.getMapper(Sprite.class);
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Class<? extends BaseSystem>[] systems() {
+            return new Class[] {AnimationSystem.class};
+        }
+    }
+
+    /** Every system, i.e. one fixed step of the game. */
+    @Benchmark
+    public void tick(TickState state) {
+        state.world.process();
+    }
+
+    @Benchmark
+    public void enemyAi(EnemyAiState state) {
+        state.world.process();
+    }
+
+    /** Includes re-arming every weapon, a single pass over the weapon components. */
+    @Benchmark
+    public void collisions(CombatState state) {
+        state.arm();
+        state.world.process();
+    }
+
+    /** Advancing swings and moving weapon hitboxes to their owners. */
+    @Benchmark
+    public void weapons(WeaponState state) {
+        state.world.process();
+    }
+
+    /** Velocity and gravity integration plus keeping hitboxes on their owners. */
+    @Benchmark
+    public void physicsStep(MovementState state) {
+        state.turnAroundPeriodically();
+        state.world.process();
+    }
+
+    /** Clip selection and advance for every sprite, then the frame lookup the renderer does. */
+    @Benchmark
+    public void animationFrames(SpriteState state, Blackhole blackhole) {
+        state.world.process();
+        int[] ids = state.drawn.getData();
+        for (int i = 0, n = state.drawn.size(); i < n; i++) {
+            blackhole.consume(state.sprites.get(ids[i]).animation.getFrame());
+        }
+    }
+
+    private static void removeDamage(World world) {
+        IntBag armed = world.getAspectSubscriptionManager().get(Aspect.all(Weapon.class)).getEntities();
+        ComponentMapper<Weapon> weapons = world.getMapper(Weapon.class);
+        for (int i = 0, n = armed.size(); i < n; i++) {
+            weapons.get(armed.get(i)).damage = 0;
+        }
+    }
+
+    private static AnimationSet playerClips() {
+        AnimationSet clips = new AnimationSet();
+        addClip(clips, "idle", 3, 0.2f, Animation.PlayMode.LOOP, AnimationSet.FACES_RIGHT);
+        addClip(clips, "walk", 2, 0.1f, Animation.PlayMode.LOOP, AnimationSet.FACES_RIGHT);
+        addClip(clips, "attack", 5, 0.08f, Animation.PlayMode.NORMAL, AnimationSet.FACES_RIGHT);
+        addClip(clips, "death", 6, 0.1f, Animation.PlayMode.NORMAL, AnimationSet.FACES_NONE);
+        return clips;
+    }
+
+    private static AnimationSet enemyClips() {
+        AnimationSet clips = new AnimationSet();
+        addClip(clips, "walk", 2, 0.1f, Animation.PlayMode.LOOP, AnimationSet.FACES_RIGHT);
+        addClip(clips, "attack", 5, 0.08f, Animation.PlayMode.NORMAL, AnimationSet.FACES_RIGHT);
+        return clips;
+    }
+
+    // Frame counts and timings follow assets/data/animations.json; the regions need no texture.
+    private static void addClip(AnimationSet clips, String name, int frames, float frameDuration, Animation.PlayMode mode, byte facing) {
+        TextureRegion[] regions = new TextureRegion[frames];
+        for (int i = 0; i < frames; i++) {
+            regions[i] = new TextureRegion();
+        }
+        Animation<TextureRegion> clip = new Animation<>(frameDuration, regions);
+        clip.setPlayMode(mode);
+        clips.add(name, clip, facing);
+    }
+}
@@ -0,0 +1,83 @@
+package com.sek.sekiro2d;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes allocated by one thread between {@link #begin()} and {@link #end()}, read from the JVM's
+ * per-thread allocation counter. Meant for frame loops: a steady-state game frame should report 0,
+ * and a headless run can fail when {@link #getMaxFrameBytes()} is not. Where the JVM has no such
+ * counter {@link #isSupported()} is false and every figure stays at zero.
+ */
+public class AllocationCounter {
+    private final com.sun.management.ThreadMXBean threads;
+    private final long threadId;
+    // Bytes the two counter reads themselves cost, subtracted from every frame.
+    private final long overhead;
+
+    private long start = -1;
+    private long lastFrameBytes;
+    private long maxFrameBytes;
+    private long totalBytes;
+    private long frames;
+
+    /** Counts allocations of the calling thread. */
+    public AllocationCounter() {
+        com.sun.management.ThreadMXBean bean = null;
+        try {
+            java.lang.management.ThreadMXBean platform = ManagementFactory.getThreadMXBean();
+            if (platform instanceof com.sun.management.ThreadMXBean) {
+                bean = (com.sun.management.ThreadMXBean) platform;
+                if (!bean.isThreadAllocatedMemorySupported()) {
+                    bean = null;
+                } else if (!bean.isThreadAllocatedMemoryEnabled()) {
+                    bean.setThreadAllocatedMemoryEnabled(true);
+                }
+            }
+        } catch (Throwable ignored) {
+            // No management API on this platform; stay unsupported.
+            bean = null;
+        }
+        threads = bean;
+        threadId = Thread.currentThread().getId();
+
+        long cost = 0;
+        if (threads != null) {
+            long first = threads.getThreadAllocatedBytes(threadId);
+            cost = threads.getThreadAllocatedBytes(threadId) - first;
+        }
+        overhead = cost;
+    }
+
+    public boolean isSupported() {
+        return threads != null;
+    }
+
+    public void begin() {
+        if (threads != null) {
+            start = threads.getThreadAllocatedBytes(threadId);
+        }
+    }
+
+    public void end() {
+        if (threads == null || start < 0) return;
+        lastFrameBytes = Math.max(0, threads.getThreadAllocatedBytes(threadId) - start - overhead);
+        maxFrameBytes = Math.max(maxFrameBytes, lastFrameBytes);
+        totalBytes += lastFrameBytes;
+        frames++;
+        start = -1;
+    }
+
+    /** Forgets everything counted so far, e.g. once loading and warm-up are over. */
+    public void reset() {
+        lastFrameBytes = maxFrameBytes = totalBytes = frames = 0;
+    }
+
+    public long getLastFrameBytes() { return lastFrameBytes; }
+    public long getMaxFrameBytes() { return maxFrameBytes; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getFrames() { return frames; }
+
+    public float getBytesPerFrame() {
+        return frames == 0 ? 0 : (float) totalBytes / frames;
+    }
+}
@@ -0,0 +1,90 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * The clips of one entity type, built once from {@code data/animations.json} and shared by every
+ * instance. Entities resolve clip names to ids with {@link #id(String)} at construction and only
+ * pass ids around afterwards.
+ * <br>
+ * Directional clips ship facing one way only, given by their {@code "facing"}; an entity facing the
+ * other way draws them mirrored. Clips without a facing, such as a death, are never mirrored.
+ */
+public class AnimationSet {
+    public static final byte FACES_NONE = 0, FACES_RIGHT = 1, FACES_LEFT = -1;
+
+    private final ObjectIntMap<String> ids = new ObjectIntMap<>();
+    private final Array<Animation<TextureRegion>> clips = new Array<>();
+    private final ByteArray facings = new ByteArray();
+
+    /** An empty set, filled with {@link #add(String, Animation)}; e.g. for clips built in code. */
+    public AnimationSet() {
+    }
+
+    /** Builds every clip listed under one entity entry, e.g. {@code "player": { "idle": {...} }}. */
+    AnimationSet(JsonValue definition, GameAssets assets) {
+        for (JsonValue clip = definition.child; clip != null; clip = clip.next) {
+            TextureRegion[] frames = assets.frames(clip.getString("frames"), clip.getInt("count"));
+            Animation<TextureRegion> animation = new Animation<>(clip.getFloat("frameDuration"), frames);
+            animation.setPlayMode(Animation.PlayMode.valueOf(clip.getString("playMode", "LOOP")));
+            add(clip.name, animation, facing(clip));
+        }
+    }
+
+    private static byte facing(JsonValue clip) {
+        String facing = clip.getString("facing", null);
+        if (facing == null) return FACES_NONE;
+        if (facing.equals("right")) return FACES_RIGHT;
+        if (facing.equals("left")) return FACES_LEFT;
+        throw new GdxRuntimeException("Unknown facing for clip " + clip.name + ": " + facing);
+    }
+
+    /** Adds a clip that is never mirrored and returns its id. */
+    public int add(String name, Animation<TextureRegion> clip) {
+        return add(name, clip, FACES_NONE);
+    }
+
+    /** Adds a clip whose frames face {@code facing}, one of the {@code FACES_} constants, and returns its id. */
+    public int add(String name, Animation<TextureRegion> clip, byte facing) {
+        if (ids.containsKey(name)) {
+            throw new GdxRuntimeException("Duplicate animation clip: " + name);
+        }
+        ids.put(name, clips.size);
+        clips.add(clip);
+        facings.add(facing);
+        return clips.size - 1;
+    }
+
+    public int id(String name) {
+        int id = ids.get(name, -1);
+        if (id < 0) {
+            throw new GdxRuntimeException("Unknown animation clip: " + name);
+        }
+        return id;
+    }
+
+    public Animation<TextureRegion> get(int id) {
+        return clips.get(id);
+    }
+
+    /** Whether an entity facing right, or left, has to draw {@code id} mirrored. */
+    public boolean isMirrored(int id, boolean rightFacing) {
+        byte facing = facings.get(id);
+        return facing != FACES_NONE && (facing == FACES_RIGHT) != rightFacing;
+    }
+
+    public int size() {
+        return clips.size;
+    }
+
+    /** Whether {@code id} is drawn mirrored for one of the two facings. */
+    public boolean isDirectional(int id) {
+        return facings.get(id) != FACES_NONE;
+    }
+}
@@ -0,0 +1,64 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Per-entity playback position within a shared {@link AnimationSet}. Never allocates after
+ * construction; pooled entities keep theirs and {@link #reset(AnimationSet, int)} it on respawn.
+ */
+public class AnimationState {
+    private AnimationSet set;
+    private int clip;
+    private float stateTime;
+
+    public AnimationState(AnimationSet set, int initialClip) {
+        this.set = set;
+        this.clip = initialClip;
+    }
+
+    /** Re-targets this state at another set, e.g. when a pooled sprite is reused. */
+    public void reset(AnimationSet set, int clip) {
+        this.set = set;
+        restart(clip);
+    }
+
+    /** Switches to {@code clip}, restarting it only if it is not already playing. */
+    public void play(int clip) {
+        if (this.clip != clip) {
+            restart(clip);
+        }
+    }
+
+    public void restart(int clip) {
+        this.clip = clip;
+        this.stateTime = 0;
+    }
+
+    /** Shows {@code clip} at an externally driven time, e.g. the progress of a swing. */
+    public void set(int clip, float stateTime) {
+        this.clip = clip;
+        this.stateTime = stateTime;
+    }
+
+    public void update(float delta) {
+        stateTime += delta;
+    }
+
+    /** Whether the current frame has to be drawn mirrored for an entity facing as given. */
+    public boolean isMirrored(boolean rightFacing) {
+        return set.isMirrored(clip, rightFacing);
+    }
+
+    public TextureRegion getFrame() {
+        return set.get(clip).getKeyFrame(stateTime);
+    }
+
+    public boolean isFinished() {
+        Animation<TextureRegion> animation = set.get(clip);
+        return animation.isAnimationFinished(stateTime);
+    }
+
+    public int getClip() { return clip; }
+    public float getStateTime() { return stateTime; }
+}
@@ -0,0 +1,160 @@
+package com.sek.sekiro2d;
+
+import com.artemis.Archetype;
+import com.artemis.ArchetypeBuilder;
+import com.artemis.ComponentMapper;
+import com.artemis.World;
+import com.sek.sekiro2d.component.EnemyAi;
+import com.sek.sekiro2d.component.Gravity;
+import com.sek.sekiro2d.component.Health;
+import com.sek.sekiro2d.component.Hitbox;
+import com.sek.sekiro2d.component.PlayerControl;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Sprite;
+import com.sek.sekiro2d.component.Velocity;
+import com.sek.sekiro2d.component.Weapon;
+
+/**
+ * Builds the player and enemy entities with the tuning the old Player and Enemy classes hardcoded.
+ * Every component is pooled, so spawning into a warmed-up world reuses the instances of entities
+ * deleted earlier, including their {@link AnimationState}. Without clip sets the entities get no
+ * {@link Sprite} at all, which is how the simulation runs without GL.
+ */
+class EntityFactory {
+    private static final float ATTACK_DURATION = 0.4f;
+    private static final float ENEMY_ATTACK_COOLDOWN = 1.5f;
+    private static final int ATTACK_DAMAGE = 30;
+
+    private final World world;
+    private final AnimationSet playerClips;
+    private final AnimationSet enemyClips;
+    private final Archetype playerArchetype;
+    private final Archetype enemyArchetype;
+
+    private final ComponentMapper<Position> positions;
+    private final ComponentMapper<Velocity> velocities;
+    private final ComponentMapper<Hitbox> hitboxes;
+    private final ComponentMapper<Health> healths;
+    private final ComponentMapper<Weapon> weapons;
+    private final ComponentMapper<Sprite> sprites;
+
+    /** Clip sets may be null, in which case nothing gets a sprite. */
+    public EntityFactory(World world, AnimationSet playerClips, AnimationSet enemyClips) {
+        this.world = world;
+        this.playerClips = playerClips;
+        this.enemyClips = enemyClips;
+
+        // One add per class; the varargs form creates an unchecked generic array.
+        ArchetypeBuilder player = new ArchetypeBuilder()
+            .add(Position.class)
+            .add(Velocity.class)
+            .add(Gravity.class)
+            .add(Hitbox.class)
+            .add(Health.class)
+            .add(Weapon.class)
+            .add(PlayerControl.class);
+        if (playerClips != null) {
+            player.add(Sprite.class);
+        }
+        playerArchetype = player.build(world, "player");
+        ArchetypeBuilder enemy = new ArchetypeBuilder()
+            .add(Position.class)
+            .add(Velocity.class)
+            .add(Gravity.class)
+            .add(Hitbox.class)
+            .add(Health.class)
+            .add(Weapon.class)
+            .add(EnemyAi.class);
+        if (enemyClips != null) {
+            enemy.add(Sprite.class);
+        }
+        enemyArchetype = enemy.build(world, "enemy");
+
+        positions = world.getMapper(Position.class);
+        velocities = world.getMapper(Velocity.class);
+        hitboxes = world.getMapper(Hitbox.class);
+        healths = world.getMapper(Health.class);
+        weapons = world.getMapper(Weapon.class);
+        sprites = world.getMapper(Sprite.class);
+    }
+
+    public int createPlayer(float x, float y, float speed, int health) {
+        int id = world.create(playerArchetype);
+        positions.get(id).set(x, y);
+        velocities.get(id).speed = speed;
+        hitboxes.get(id).bounds.set(x, y, 100, 100);
+        healths.get(id).set(health);
+
+        Weapon weapon = weapons.get(id);
+        weapon.hitbox.setSize(130, 5);
+        weapon.offsetRightX = 100 * 0.7f;
+        weapon.offsetLeftX = -weapon.hitbox.width * 0.5f;
+        weapon.offsetY = 100 * 0.5f;
+        weapon.duration = ATTACK_DURATION;
+        weapon.damage = ATTACK_DAMAGE;
+
+        if (playerClips == null) return id;
+        Sprite sprite = sprites.get(id);
+        sprite.width = 150;
+        sprite.height = 150;
+        sprite.attackScale = 2.5f;
+        sprite.idle = playerClips.id("idle");
+        sprite.walk = playerClips.id("walk");
+        sprite.attack = playerClips.id("attack");
+        sprite.death = playerClips.id("death");
+        sprite.animation = animationState(sprite, playerClips, sprite.idle);
+        return id;
+    }
+
+    public int createEnemy(float x, float y, float speed) {
+        int id = world.create(enemyArchetype);
+        positions.get(id).set(x, y);
+        velocities.get(id).speed = speed;
+        hitboxes.get(id).bounds.set(x, y, 100, 150);
+        healths.get(id).set(10);
+
+        Weapon weapon = weapons.get(id);
+        weapon.hitbox.setSize(150, 40);
+        weapon.offsetRightX = 100;
+        weapon.offsetLeftX = -weapon.hitbox.width;
+        weapon.duration = ATTACK_DURATION;
+        weapon.cooldown = ENEMY_ATTACK_COOLDOWN;
+        weapon.damage = ATTACK_DAMAGE;
+
+        if (enemyClips == null) return id;
+        Sprite sprite = sprites.get(id);
+        sprite.width = 200;
+        sprite.height = 200;
+        sprite.walk = enemyClips.id("walk");
+        sprite.attack = enemyClips.id("attack");
+        sprite.animation = animationState(sprite, enemyClips, sprite.walk);
+        return id;
+    }
+
+    /**
+     * Fills the component pools for a player and {@code enemies} enemies. The entities are deleted
+     * right away and their components reach the pools at the next world flush.
+     */
+    public void prewarm(int enemies) {
+        prewarm(playerArchetype, playerClips);
+        for (int i = 0; i < enemies; i++) {
+            prewarm(enemyArchetype, enemyClips);
+        }
+    }
+
+    private void prewarm(Archetype archetype, AnimationSet clips) {
+        int id = world.create(archetype);
+        if (clips != null) {
+            sprites.get(id).animation = new AnimationState(clips, 0);
+        }
+        world.delete(id);
+    }
+
+    private static AnimationState animationState(Sprite sprite, AnimationSet clips, int clip) {
+        if (sprite.animation == null) {
+            return new AnimationState(clips, clip);
+        }
+        sprite.animation.reset(clips, clip);
+        return sprite.animation;
+    }
+}
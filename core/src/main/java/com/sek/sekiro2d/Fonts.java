@@ -0,0 +1,60 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The fonts listed in {@code data/fonts.json}, rasterized by FreeType at their own size when the
+ * atlas is packed, so nothing is ever scaled or rasterized at runtime. Fixed strings are laid out
+ * once on first use and the layout is reused every frame after; text that changes goes through a
+ * {@link ValueLabel} instead.
+ */
+class Fonts implements Disposable {
+    static final String UI = "ui";
+    static final String TITLE = "title";
+
+    private final GameAssets assets;
+    private final ObjectMap<String, BitmapFont> fonts = new ObjectMap<>();
+    private final ObjectMap<String, ObjectMap<String, GlyphLayout>> layouts = new ObjectMap<>();
+
+    /** The caller must hold a reference to the atlas for as long as the fonts are drawn. */
+    Fonts(GameAssets assets) {
+        this.assets = assets;
+    }
+
+    BitmapFont get(String name) {
+        BitmapFont font = fonts.get(name);
+        if (font == null) {
+            font = assets.font(name);
+            fonts.put(name, font);
+        }
+        return font;
+    }
+
+    /** The layout of {@code text} in font {@code name}, built on the first call. */
+    GlyphLayout layout(String name, String text) {
+        ObjectMap<String, GlyphLayout> cache = layouts.get(name);
+        if (cache == null) {
+            cache = new ObjectMap<>();
+            layouts.put(name, cache);
+        }
+        GlyphLayout layout = cache.get(text);
+        if (layout == null) {
+            layout = new GlyphLayout(get(name), text);
+            cache.put(text, layout);
+        }
+        return layout;
+    }
+
+    @Override
+    public void dispose() {
+        // The fonts don't own the atlas texture; this only drops their glyph data.
+        for (BitmapFont font : fonts.values()) {
+            font.dispose();
+        }
+        fonts.clear();
+        layouts.clear();
+    }
+}
@@ -0,0 +1,254 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Frame timing, per-section CPU time, batch and GL counters and GC activity. Once a second the
+ * figures are summarized: shown by the overlay when it is visible, and appended as a CSV line to
+ * the metrics log when there is one. Percentiles cover the last {@value #WINDOW} frames; maxima,
+ * section times and counters cover the last second.
+ * <br>
+ * The log rolls over to {@code <name>.1} once it grows past {@value #MAX_LOG_BYTES} bytes. Nothing
+ * is measured through GL, and per-frame work allocates nothing, while neither the overlay nor the
+ * log is on.
+ */
+class FrameProfiler {
+    enum Section { SIMULATION, COLLISIONS, DRAW, HUD }
+
+    private static final Section[] SECTIONS = Section.values();
+    private static final int WINDOW = 600;
+    private static final long REPORT_NANOS = 1000000000L;
+    private static final long MAX_LOG_BYTES = 1024 * 1024;
+    private static final String LOG_HEADER = "timeMillis,fps,frameP50Ms,frameP99Ms,frameMaxMs,simulationMs,"
+        + "collisionsMs,drawMs,hudMs,renderCalls,maxSpritesInBatch,glDrawCalls,textureBindings,shaderSwitches,"
+        + "gcCount,gcMillis\n";
+
+    // Null where the backend has no GL to wrap, e.g. headless; the GL columns then stay at zero.
+    private final GLProfiler gl = Gdx.graphics.getGL20() != null ? new GLProfiler(Gdx.graphics) : null;
+    private final List<GarbageCollectorMXBean> collectors;
+    private final FileHandle log;
+
+    private final float[] frameMillis = new float[WINDOW];
+    private final float[] sorted = new float[WINDOW];
+    private int frameCount;
+    private int frameCursor;
+
+    private final long[] started = new long[SECTIONS.length];
+    private final long[] sectionNanos = new long[started.length];
+    private long reportStart = TimeUtils.nanoTime();
+    private int reportFrames;
+    private float reportMaxMillis;
+    private int renderCallsStart;
+    private int drawCalls, textureBindings, shaderSwitches;
+    private long gcCountStart = -1, gcMillisStart;
+
+    private boolean overlayVisible;
+    private boolean layoutStale;
+    private final StringBuilder text = new StringBuilder();
+    private final StringBuilder line = new StringBuilder();
+    private final GlyphLayout layout = new GlyphLayout();
+    private final Matrix4 screen = new Matrix4();
+
+    /** @param log where to append metrics once a second, or null to only feed the overlay. */
+    FrameProfiler(FileHandle log) {
+        this.log = log;
+        List<GarbageCollectorMXBean> beans;
+        try {
+            beans = ManagementFactory.getGarbageCollectorMXBeans();
+        } catch (Throwable ignored) {
+            // No management API on this platform; GC columns stay at zero.
+            beans = null;
+        }
+        collectors = beans;
+        updateGlProfiler();
+    }
+
+    boolean isActive() {
+        return overlayVisible || log != null;
+    }
+
+    boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    void toggleOverlay() {
+        overlayVisible = !overlayVisible;
+        updateGlProfiler();
+        if (overlayVisible) {
+            text.setLength(0);
+            text.append("Profiler: collecting...");
+            layoutStale = true;
+        }
+    }
+
+    private void updateGlProfiler() {
+        if (gl == null) return;
+        if (isActive()) {
+            gl.enable();
+        } else {
+            gl.disable();
+        }
+    }
+
+    void begin(Section section) {
+        if (isActive()) {
+            started[section.ordinal()] = TimeUtils.nanoTime();
+        }
+    }
+
+    void end(Section section) {
+        if (isActive()) {
+            sectionNanos[section.ordinal()] += TimeUtils.nanoTime() - started[section.ordinal()];
+        }
+    }
+
+    /** Adds time measured elsewhere, e.g. inside the simulation. */
+    void add(Section section, long nanos) {
+        sectionNanos[section.ordinal()] += nanos;
+    }
+
+    /** Call once at the end of every frame, after all drawing. */
+    void endFrame(SpriteBatch batch) {
+        if (!isActive()) return;
+
+        float millis = Gdx.graphics.getDeltaTime() * 1000;
+        frameMillis[frameCursor] = millis;
+        frameCursor = (frameCursor + 1) % WINDOW;
+        frameCount = Math.min(frameCount + 1, WINDOW);
+        reportFrames++;
+        reportMaxMillis = Math.max(reportMaxMillis, millis);
+        if (gl != null) {
+            drawCalls += gl.getDrawCalls();
+            textureBindings += gl.getTextureBindings();
+            shaderSwitches += gl.getShaderSwitches();
+            gl.reset();
+        }
+
+        long now = TimeUtils.nanoTime();
+        if (now - reportStart >= REPORT_NANOS) {
+            report(now, batch);
+        }
+    }
+
+    private void report(long now, SpriteBatch batch) {
+        float seconds = (now - reportStart) / 1e9f;
+        float fps = reportFrames / seconds;
+        System.arraycopy(frameMillis, 0, sorted, 0, frameCount);
+        Arrays.sort(sorted, 0, frameCount);
+        float p50 = sorted[(frameCount - 1) / 2];
+        float p99 = sorted[(int) ((frameCount - 1) * 0.99f)];
+        int renderCalls = batch.totalRenderCalls - renderCallsStart;
+        long gcCount = 0, gcMillis = 0;
+        if (collectors != null) {
+            for (int i = 0, n = collectors.size(); i < n; i++) {
+                GarbageCollectorMXBean collector = collectors.get(i);
+                gcCount += Math.max(0, collector.getCollectionCount());
+                gcMillis += Math.max(0, collector.getCollectionTime());
+            }
+        }
+        if (gcCountStart < 0) {
+            gcCountStart = gcCount;
+            gcMillisStart = gcMillis;
+        }
+
+        if (overlayVisible) {
+            text.setLength(0);
+            text.append("FPS ").append(Math.round(fps))
+                .append("  frame p50 "); appendMillis(text, p50);
+            text.append(" p99 "); appendMillis(text, p99);
+            text.append(" max "); appendMillis(text, reportMaxMillis);
+            text.append("\nper frame: simulation "); appendMillis(text, perFrame(Section.SIMULATION));
+            text.append(" (collisions "); appendMillis(text, perFrame(Section.COLLISIONS));
+            text.append(")  draw "); appendMillis(text, perFrame(Section.DRAW));
+            text.append("  hud "); appendMillis(text, perFrame(Section.HUD));
+            text.append("\nbatch: ").append(renderCalls / Math.max(1, reportFrames)).append(" render calls, max ")
+                .append(batch.maxSpritesInBatch).append(" sprites  GL: ")
+                .append(drawCalls / Math.max(1, reportFrames)).append(" draws, ")
+                .append(textureBindings / Math.max(1, reportFrames)).append(" texture binds, ")
+                .append(shaderSwitches / Math.max(1, reportFrames)).append(" shader switches")
+                .append("\nGC: ").append(gcCount - gcCountStart).append(" collections, ")
+                .append(gcMillis - gcMillisStart).append(" ms since start");
+            layoutStale = true;
+        }
+
+        if (log != null) {
+            line.setLength(0);
+            line.append(TimeUtils.millis()).append(',').append(Math.round(fps)).append(',');
+            appendMillis(line, p50); line.append(',');
+            appendMillis(line, p99); line.append(',');
+            appendMillis(line, reportMaxMillis); line.append(',');
+            for (Section section : SECTIONS) {
+                appendMillis(line, perFrame(section)); line.append(',');
+            }
+            line.append(renderCalls).append(',').append(batch.maxSpritesInBatch).append(',')
+                .append(drawCalls).append(',').append(textureBindings).append(',').append(shaderSwitches).append(',')
+                .append(gcCount - gcCountStart).append(',').append(gcMillis - gcMillisStart).append('\n');
+            writeLog();
+        }
+
+        reportStart = now;
+        reportFrames = 0;
+        reportMaxMillis = 0;
+        renderCallsStart = batch.totalRenderCalls;
+        batch.maxSpritesInBatch = 0;
+        drawCalls = textureBindings = shaderSwitches = 0;
+        Arrays.fill(sectionNanos, 0);
+    }
+
+    private float perFrame(Section section) {
+        return sectionNanos[section.ordinal()] / 1e6f / Math.max(1, reportFrames);
+    }
+
+    private void writeLog() {
+        try {
+            if (!log.exists() || log.length() > MAX_LOG_BYTES) {
+                if (log.exists()) {
+                    log.moveTo(log.sibling(log.name() + ".1"));
+                }
+                log.writeString(LOG_HEADER, false);
+            }
+            log.writeString(line.toString(), true);
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error("Profiler", "Could not write metrics to " + log, e);
+        }
+    }
+
+    /** Milliseconds with one decimal, without going through Float.toString. */
+    private static void appendMillis(StringBuilder out, float millis) {
+        int tenths = Math.round(millis * 10);
+        out.append(tenths / 10).append('.').append(tenths % 10);
+    }
+
+    /** Draws the overlay in screen space in the top-left corner, if it is visible. */
+    void draw(SpriteBatch batch, BitmapFont font) {
+        if (!overlayVisible) return;
+        if (layoutStale) {
+            layout.setText(font, text);
+            layoutStale = false;
+        }
+        screen.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.setProjectionMatrix(screen);
+        batch.begin();
+        font.draw(batch, layout, 10, Gdx.graphics.getHeight() - 10);
+        batch.end();
+    }
+
+    void dispose() {
+        if (gl != null) {
+            gl.disable();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.KTXTextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.sek.sekiro2d.level.Level;
+
+/**
+ * Shared, reference-counted cache in front of an {@link AssetManager}. Every owner calls
+ * {@link #acquireAtlas()} once and {@link #releaseAtlas()} from its {@code dispose()}; the atlas is
+ * only read from disk on the first acquire and only unloaded when the last owner releases it.
+ * Frame arrays are built once per name pattern and shared between all entities, so they must not
+ * be modified.
+ * <br>
+ * {@link #queueAtlas()} plus repeated {@link #update(int)} calls load the atlas without blocking:
+ * the AssetManager decodes the page images on its executor thread and only the GL upload runs on
+ * the render thread.
+ * <br>
+ * Textures load through a {@link GpuTextureLoader}, so any that ship GPU-compressed load that way.
+ * Textures with resolution variants are requested through {@link #variant(String)}, which picks the
+ * half-resolution file while the screen is too small to show the full one.
+ */
+class GameAssets implements Disposable {
+    static final String ATLAS = "atlas/sekiro.atlas";
+    // Packed on its own, compressed and in both resolutions; see ParallaxBackground.
+    static final String BACKGROUND_ATLAS = "atlas/background.atlas";
+    static final String ANIMATIONS = "data/animations.json";
+    static final String WHITE_REGION = "ui/white";
+    static final String LEVEL = "levels/forest";
+    // Collision of a few dozen chunks; the simulation only ever needs the three around the player.
+    private static final long LEVEL_COLLISION_BUDGET = 64 * 1024;
+    // Below this many screen pixels per world unit, half-resolution art looks the same at a quarter the size.
+    private static final float HALF_RESOLUTION_BELOW = 0.75f;
+    private static final String HALF_RESOLUTION = ".half";
+
+    private final AssetManager manager;
+    private final ObjectIntMap<String> refCounts = new ObjectIntMap<>();
+    private final ObjectMap<String, TextureRegion[]> frameCache = new ObjectMap<>();
+    private final ObjectMap<String, AnimationSet> animationSets = new ObjectMap<>();
+    private JsonValue animationData;
+    private final Array<Texture> textures = new Array<>();
+    private final GpuTextureLoader textureLoader;
+    private boolean atlasQueued;
+    private boolean halfResolution;
+
+    public GameAssets() {
+        this(new AssetManager());
+    }
+
+    /** Call on the render thread; the texture loader asks GL which compressed formats it can sample. */
+    public GameAssets(AssetManager manager) {
+        this.manager = manager;
+        textureLoader = new GpuTextureLoader(manager.getFileHandleResolver());
+        manager.setLoader(Texture.class, textureLoader);
+    }
+
+    /** Picks the resolution of variant textures for a screen showing {@code pixelsPerUnit} pixels per world unit. */
+    public void setScreenDensity(float pixelsPerUnit) {
+        halfResolution = pixelsPerUnit < HALF_RESOLUTION_BELOW;
+    }
+
+    public boolean isHalfResolution() {
+        return halfResolution;
+    }
+
+    /**
+     * The file to request for a texture with resolution variants: {@code path} itself, or
+     * {@code <name>.half.<extension>} next to it while the screen is small.
+     */
+    public String variant(String path) {
+        return halfResolution ? halfVariant(path) : path;
+    }
+
+    /** The half-resolution file of a texture or atlas with resolution variants. */
+    static String halfVariant(String path) {
+        int dot = path.lastIndexOf('.');
+        return path.substring(0, dot) + HALF_RESOLUTION + path.substring(dot);
+    }
+
+    public void queueAtlas() {
+        if (!atlasQueued && refCounts.get(ATLAS, 0) == 0) {
+            manager.load(ATLAS, TextureAtlas.class);
+            atlasQueued = true;
+        }
+    }
+
+    /** Advances queued loading for at most {@code budgetMillis}; returns true once everything is loaded. */
+    public boolean update(int budgetMillis) {
+        return manager.update(budgetMillis);
+    }
+
+    public float getProgress() {
+        return manager.getProgress();
+    }
+
+    public TextureAtlas acquireAtlas() {
+        int count = refCounts.get(ATLAS, 0);
+        if (count == 0) {
+            // A queued atlas already holds the manager's reference; don't add a second one.
+            if (!atlasQueued) {
+                manager.load(ATLAS, TextureAtlas.class);
+            }
+            atlasQueued = false;
+            manager.finishLoadingAsset(ATLAS);
+        }
+        refCounts.put(ATLAS, count + 1);
+        return manager.get(ATLAS, TextureAtlas.class);
+    }
+
+    public void releaseAtlas() {
+        int count = refCounts.get(ATLAS, 0);
+        if (count <= 0) {
+            throw new GdxRuntimeException("Atlas released more often than acquired: " + ATLAS);
+        }
+        if (count == 1) {
+            refCounts.remove(ATLAS, 0);
+            frameCache.clear();
+            animationSets.clear();
+            manager.unload(ATLAS);
+        } else {
+            refCounts.put(ATLAS, count - 1);
+        }
+    }
+
+    public int getReferenceCount(String fileName) {
+        return refCounts.get(fileName, 0);
+    }
+
+    /**
+     * Returns the frames {@code String.format(pattern, 1..count)} from the atlas, e.g.
+     * {@code frames("attack/attack%d", 5)}. The caller must hold a reference to the atlas.
+     */
+    public TextureRegion[] frames(String pattern, int count) {
+        TextureRegion[] frames = frameCache.get(pattern);
+        if (frames == null) {
+            TextureAtlas atlas = manager.get(ATLAS, TextureAtlas.class);
+            frames = new TextureRegion[count];
+            for (int i = 0; i < count; i++) {
+                frames[i] = findRegion(atlas, String.format(pattern, i + 1));
+            }
+            frameCache.put(pattern, frames);
+        } else if (frames.length != count) {
+            throw new GdxRuntimeException("Frames " + pattern + " cached with " + frames.length + " frames, not " + count);
+        }
+        return frames;
+    }
+
+    /** Returns the shared clips for an entity type defined in {@value #ANIMATIONS}. */
+    public AnimationSet animations(String entity) {
+        AnimationSet set = animationSets.get(entity);
+        if (set == null) {
+            if (animationData == null) {
+                animationData = new JsonReader().parse(Gdx.files.internal(ANIMATIONS));
+            }
+            JsonValue definition = animationData.get(entity);
+            if (definition == null) {
+                throw new GdxRuntimeException("No animations defined for " + entity + " in " + ANIMATIONS);
+            }
+            set = new AnimationSet(definition, this);
+            animationSets.put(entity, set);
+        }
+        return set;
+    }
+
+    /** A fresh view of {@value #LEVEL}; each simulation needs its own, as it tracks resident chunks. */
+    public Level level() {
+        return Level.load(Gdx.files.internal(LEVEL), LEVEL_COLLISION_BUDGET);
+    }
+
+    /**
+     * Starts loading a texture in the background: the AssetManager decodes it on its executor
+     * thread, and {@link #update(int)} uploads it once that is done.
+     */
+    public void queueTexture(String fileName) {
+        manager.load(fileName, Texture.class);
+    }
+
+    public boolean isTextureLoaded(String fileName) {
+        return manager.isLoaded(fileName, Texture.class);
+    }
+
+    public Texture texture(String fileName) {
+        return manager.get(fileName, Texture.class);
+    }
+
+    /** Unloads a texture from {@link #queueTexture(String)}, or cancels it if it is still queued. */
+    public void unloadTexture(String fileName) {
+        manager.unload(fileName);
+    }
+
+    /** Starts loading an atlas other than {@value #ATLAS} in the background, like {@link #queueTexture(String)}. */
+    public void queueTextureAtlas(String fileName) {
+        manager.load(fileName, TextureAtlas.class);
+    }
+
+    public boolean isTextureAtlasLoaded(String fileName) {
+        return manager.isLoaded(fileName, TextureAtlas.class);
+    }
+
+    public TextureAtlas textureAtlas(String fileName) {
+        return manager.get(fileName, TextureAtlas.class);
+    }
+
+    /** Unloads an atlas from {@link #queueTextureAtlas(String)}, or cancels it if it is still queued. */
+    public void unloadTextureAtlas(String fileName) {
+        manager.unload(fileName);
+    }
+
+    public TextureRegion region(String name) {
+        return findRegion(manager.get(ATLAS, TextureAtlas.class), name);
+    }
+
+    /**
+     * A 1x1 white texel for filled rectangles, tinted with the batch color, so bars and panels
+     * share the sprites' texture instead of needing a ShapeRenderer.
+     */
+    public TextureRegion whitePixel() {
+        return region(WHITE_REGION);
+    }
+
+    /**
+     * A font baked into the atlas by {@code packTextures}: glyph metrics from {@code <name>.fnt} next
+     * to the atlas, glyphs from region {@code fonts/<name>}, so text batches with sprites and rects.
+     * The font does not own the atlas texture; disposing it leaves the atlas loaded.
+     */
+    public BitmapFont font(String name) {
+        return new BitmapFont(Gdx.files.internal(ATLAS).sibling(name + ".fnt"), region("fonts/" + name));
+    }
+
+    static TextureRegion findRegion(TextureAtlas atlas, String name) {
+        TextureRegion region = atlas.findRegion(name);
+        if (region == null) {
+            throw new GdxRuntimeException("Missing atlas region: " + name);
+        }
+        return region;
+    }
+
+    /** Bytes of GPU memory held by every texture currently loaded through the manager. */
+    public long getResidentTextureBytes() {
+        textures.clear();
+        manager.getAll(Texture.class, textures);
+        long bytes = 0;
+        for (Texture texture : textures) {
+            bytes += textureBytes(texture);
+        }
+        textures.clear();
+        return bytes;
+    }
+
+    static long textureBytes(Texture texture) {
+        TextureData data = texture.getTextureData();
+        if (data instanceof KTXTextureData) {
+            return GpuTextureLoader.compressedBytes((KTXTextureData) data);
+        }
+        long bytes = (long) texture.getWidth() * texture.getHeight() * bytesPerPixel(data);
+        // A full mipmap chain adds roughly a third on top of the base level.
+        return data.useMipMaps() ? bytes * 4 / 3 : bytes;
+    }
+
+    private static String formatName(TextureData data) {
+        if (data instanceof KTXTextureData) {
+            return GpuTextureLoader.formatName((KTXTextureData) data);
+        }
+        return String.valueOf(data.getFormat());
+    }
+
+    private static int bytesPerPixel(TextureData data) {
+        if (data.getFormat() == null) return 4;
+        switch (data.getFormat()) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    /**
+     * GPU memory of every loaded texture, then, per entity type, what its animation frames take up
+     * inside the atlas and how much of that serves both facings by being drawn mirrored.
+     */
+    public String getMemoryReport() {
+        String compressed = textureLoader.getCompressedSuffix();
+        StringBuilder report = new StringBuilder("GPU memory (compressed textures: ")
+            .append(compressed != null ? compressed : "none").append(", resolution: ")
+            .append(halfResolution ? "half" : "full").append("):");
+        textures.clear();
+        manager.getAll(Texture.class, textures);
+        long total = 0;
+        for (Texture texture : textures) {
+            long bytes = textureBytes(texture);
+            total += bytes;
+            report.append("\n  ").append(manager.getAssetFileName(texture)).append(' ')
+                .append(texture.getWidth()).append('x').append(texture.getHeight()).append(' ')
+                .append(formatName(texture.getTextureData())).append(": ").append(bytes / 1024).append(" KB");
+        }
+        textures.clear();
+        report.append("\n  total: ").append(total / 1024).append(" KB");
+
+        for (ObjectMap.Entry<String, AnimationSet> entry : animationSets) {
+            AnimationSet set = entry.value;
+            long frameBytes = 0, mirroredBytes = 0;
+            for (int id = 0; id < set.size(); id++) {
+                long bytes = 0;
+                for (TextureRegion frame : set.get(id).getKeyFrames()) {
+                    bytes += (long) frame.getRegionWidth() * frame.getRegionHeight() * bytesPerPixel(frame.getTexture().getTextureData());
+                }
+                frameBytes += bytes;
+                if (set.isDirectional(id)) mirroredBytes += bytes;
+            }
+            report.append("\n  ").append(entry.key).append(" frames: ").append(frameBytes / 1024).append(" KB, ")
+                .append(mirroredBytes / 1024).append(" KB of it mirrored for the other facing instead of stored twice");
+        }
+        return report.toString();
+    }
+
+    public String getStats() {
+        return "assets=" + manager.getLoadedAssets()
+            + " atlasRefs=" + getReferenceCount(ATLAS)
+            + " cachedClips=" + frameCache.size
+            + " textureBytes=" + getResidentTextureBytes();
+    }
+
+    @Override
+    public void dispose() {
+        atlasQueued = false;
+        refCounts.clear();
+        frameCache.clear();
+        animationSets.clear();
+        manager.dispose();
+    }
+}
@@ -0,0 +1,299 @@
+package com.sek.sekiro2d;
+
+import com.artemis.Aspect;
+import com.artemis.BaseSystem;
+import com.artemis.ComponentMapper;
+import com.artemis.EntitySubscription;
+import com.artemis.World;
+import com.artemis.WorldConfigurationBuilder;
+import com.artemis.utils.ImmutableBag;
+import com.artemis.utils.IntBag;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Disposable;
+import com.sek.sekiro2d.component.EnemyAi;
+import com.sek.sekiro2d.component.Health;
+import com.sek.sekiro2d.component.PlayerControl;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.input.Replay;
+import com.sek.sekiro2d.level.Level;
+import com.sek.sekiro2d.system.AnimationSystem;
+import com.sek.sekiro2d.system.CombatSystem;
+import com.sek.sekiro2d.system.EffectSystem;
+import com.sek.sekiro2d.system.EnemyAiSystem;
+import com.sek.sekiro2d.system.LevelSystem;
+import com.sek.sekiro2d.system.MovementSystem;
+import com.sek.sekiro2d.system.PhysicsSystem;
+import com.sek.sekiro2d.system.PlayerControlSystem;
+import com.sek.sekiro2d.system.SpriteRenderSystem;
+import com.sek.sekiro2d.system.TimedInvocationStrategy;
+import com.sek.sekiro2d.system.WeaponSystem;
+
+/**
+ * The game rules, stepped one fixed {@link #STEP} at a time with no reference to input devices or
+ * GL. {@link SekiroGame} draws it; built with {@link #GameSimulation(int)} it has no sprites at all
+ * and runs without a window, e.g. in the headless module.
+ * <br>
+ * The world is built once; rounds only delete and respawn entities, so systems, mappers and
+ * component pools survive {@link #reset()}.
+ * <br>
+ * Every random decision comes from one generator seeded at construction, so the same seed, enemy
+ * count and per-tick player intent always produce the same session; see {@link Replay}. That holds
+ * for any number of worker threads: systems only split work whose writes stay within one entity,
+ * and the Box2D world that finds weapon hits steps on the calling thread.
+ */
+public class GameSimulation implements Disposable {
+    // Game time runs at TIME_SCALE of real time; the renderer converts between the two.
+    public static final float TIME_SCALE = 0.7f;
+    public static final float STEP = 1 / 120f;
+    // Units per second of game time; these match the old per-frame values at 60 FPS.
+    static final float GRAVITY = -0.5f * 60 * 60 / (TIME_SCALE * TIME_SCALE);
+    static final float FLOOR_HEIGHT = 90f;
+    static final float JUMP_VELOCITY = 17f * 60 / TIME_SCALE;
+    // Hit effects the pools are sized for up front on top of one per enemy, as a swing into a crowd
+    // hits every enemy under the sword; more than this at once still works, it just allocates.
+    private static final int PREWARM_HITS = 32;
+    // Used when no seed is given, so benchmarks and tools see the same fight every run.
+    public static final long DEFAULT_SEED = 0x5eb1a0L;
+
+    private final World world;
+    private final WorkerPool workers = new WorkerPool(WorkerPool.defaultThreads());
+    private final TimedInvocationStrategy invocation = new TimedInvocationStrategy();
+    private final EntityFactory factory;
+    private final int enemyCount;
+    private final EntitySubscription enemies;
+    private final EntitySubscription allEntities;
+    private final ComponentMapper<Health> healths;
+    private final ComponentMapper<PlayerControl> controls;
+    private final ComponentMapper<Position> positions;
+    private final long seed;
+    private final Level level;
+    // The most entities a round has alive at once: the player, the enemies and two per prewarmed hit.
+    private final int entityCapacity;
+    private Replay recording;
+    private int player = -1;
+    private boolean over;
+    private long ticks;
+
+    /** A simulation without sprites, for running with no GL context. */
+    public GameSimulation(int enemyCount) {
+        this(enemyCount, DEFAULT_SEED);
+    }
+
+    public GameSimulation(int enemyCount, long seed) {
+        this(enemyCount, null, null, seed);
+    }
+
+    /** Uses the player and enemy animations and the level defined in the game's data. */
+    GameSimulation(int enemyCount, GameAssets assets, long seed) {
+        this(enemyCount, assets.animations("player"), assets.animations("enemy"), assets.level(), seed);
+    }
+
+    /** A simulation on the floor alone, with no level. */
+    public GameSimulation(int enemyCount, AnimationSet playerClips, AnimationSet enemyClips, long seed) {
+        this(enemyCount, playerClips, enemyClips, null, seed);
+    }
+
+    /**
+     * @param playerClips clips with the names {@link EntityFactory} expects, or null together with
+     *        {@code enemyClips} to leave sprites out entirely.
+     * @param level platforms to stand on besides the floor, or null; used by this simulation only.
+     */
+    public GameSimulation(int enemyCount, AnimationSet playerClips, AnimationSet enemyClips, Level level, long seed) {
+        this.enemyCount = Math.max(1, enemyCount);
+        this.seed = seed;
+        this.level = level;
+        boolean sprites = playerClips != null && enemyClips != null;
+
+        WorldConfigurationBuilder config = new WorldConfigurationBuilder()
+            .with(
+                new PlayerControlSystem(JUMP_VELOCITY),
+                new EnemyAiSystem(new RandomXS128(seed), workers));
+        if (level != null) {
+            config.with(new LevelSystem(level, FLOOR_HEIGHT, GRAVITY));
+        }
+        config
+            .with(
+                new MovementSystem(GRAVITY, FLOOR_HEIGHT, level, workers),
+                new WeaponSystem(workers),
+                new PhysicsSystem(STEP),
+                new CombatSystem(),
+                new EffectSystem())
+            .register(invocation);
+        if (sprites) {
+            config.with(new AnimationSystem(), new SpriteRenderSystem());
+        }
+        world = new World(config.build());
+
+        factory = sprites
+            ? new EntityFactory(world, playerClips, enemyClips)
+            : new EntityFactory(world, null, null);
+        enemies = world.getAspectSubscriptionManager().get(Aspect.all(EnemyAi.class, Health.class));
+        allEntities = world.getAspectSubscriptionManager().get(Aspect.all());
+        healths = world.getMapper(Health.class);
+        controls = world.getMapper(PlayerControl.class);
+        positions = world.getMapper(Position.class);
+
+        int hits = PREWARM_HITS + this.enemyCount;
+        entityCapacity = 1 + this.enemyCount + 2 * hits;
+        factory.prewarm(this.enemyCount);
+        world.getSystem(EffectSystem.class).prewarm(hits);
+        world.getSystem(PhysicsSystem.class).prewarm(1 + this.enemyCount, 1 + this.enemyCount);
+        reserveSubscriptions();
+        flush();
+        spawnRound();
+    }
+
+    /** Advances one {@link #STEP}; does nothing once the round is over. */
+    public void step() {
+        if (over) return;
+        if (healths.get(player).dead || enemies.getEntities().isEmpty()) {
+            over = true;
+            return;
+        }
+        if (recording != null) {
+            recording.record(getPlayerControl());
+        }
+        world.setDelta(STEP);
+        world.process();
+        ticks++;
+    }
+
+    /** Starts a new round in the same world. */
+    public void reset() {
+        IntBag ids = allEntities.getEntities();
+        for (int i = 0, n = ids.size(); i < n; i++) {
+            world.delete(ids.get(i));
+        }
+        flush();
+        spawnRound();
+        over = false;
+    }
+
+    private void spawnRound() {
+        player = factory.createPlayer(400, FLOOR_HEIGHT, 200, 100);
+        world.getSystem(EnemyAiSystem.class).setTarget(player);
+        for (int i = 0; i < enemyCount; i++) {
+            // Alternate sides, each pair a little further out than the last.
+            float offset = 300 + (i / 2) * 15f;
+            float x = i % 2 == 0 ? 400 - offset : 400 + offset;
+            factory.createEnemy(x, FLOOR_HEIGHT, 100);
+        }
+        // Subscriptions only see new entities after a flush; without it the first step finds no enemies.
+        flush();
+    }
+
+    /** Applies pending creates and deletes without advancing the simulation. */
+    private void flush() {
+        world.setDelta(0);
+        world.process();
+    }
+
+    /**
+     * Records the player's intent for every tick from now on into {@code replay}, or stops with null.
+     * Only a recording started before the first step can be played back.
+     */
+    public void setRecording(Replay replay) {
+        recording = replay;
+    }
+
+    /** Hashes the player and every living enemy, to check that a playback did not diverge. */
+    public int checksum() {
+        int hash = (int) (ticks ^ ticks >>> 32);
+        hash = hash * 31 + stateHash(player);
+        IntBag ids = enemies.getEntities();
+        for (int i = 0, n = ids.size(); i < n; i++) {
+            hash = hash * 31 + stateHash(ids.get(i));
+        }
+        return hash;
+    }
+
+    private int stateHash(int entityId) {
+        Position position = positions.get(entityId);
+        int hash = Float.floatToIntBits(position.x);
+        hash = hash * 31 + Float.floatToIntBits(position.y);
+        return hash * 31 + healths.get(entityId).current;
+    }
+
+    public boolean isOver() {
+        return over;
+    }
+
+    public boolean isPlayerDead() {
+        return healths.get(player).dead;
+    }
+
+    public int getPlayer() {
+        return player;
+    }
+
+    /** Where input for the next step goes. */
+    public PlayerControl getPlayerControl() {
+        return controls.get(player);
+    }
+
+    /** Living enemies; updated when the world flushes. */
+    public EntitySubscription getEnemies() {
+        return enemies;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Makes room in every entity subscription of the world, including any added since construction,
+     * for all the entities a round can have alive at once, so a crowded moment doesn't grow them.
+     */
+    public void reserveSubscriptions() {
+        ImmutableBag<EntitySubscription> subscriptions = world.getAspectSubscriptionManager().getSubscriptions();
+        for (int i = 0, n = subscriptions.size(); i < n; i++) {
+            subscriptions.get(i).getEntities().ensureCapacity(entityCapacity);
+        }
+    }
+
+    /** Whether {@link #takeSystemNanos(Class)} accumulates; off by default, as timing each system costs a little. */
+    public void setSystemTiming(boolean timing) {
+        invocation.setTiming(timing);
+    }
+
+    /** Nanoseconds spent in systems of {@code type} since the last call for it, while timing is on. */
+    public long takeSystemNanos(Class<? extends BaseSystem> type) {
+        return invocation.takeNanos(type);
+    }
+
+    /** Worker threads the systems split their per-entity work over, besides the caller; 0 for none. */
+    public void setWorkerThreads(int threads) {
+        workers.setThreads(threads);
+    }
+
+    public int getWorkerThreads() {
+        return workers.getThreads();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /** The level this simulation stands on, or null for the floor alone. */
+    public Level getLevel() {
+        return level;
+    }
+
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    /** Steps taken since construction, across rounds. */
+    public long getTicks() {
+        return ticks;
+    }
+
+    @Override
+    public void dispose() {
+        world.dispose();
+        workers.dispose();
+        if (level != null) {
+            level.dispose();
+        }
+    }
+}
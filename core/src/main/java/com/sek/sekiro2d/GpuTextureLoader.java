@@ -0,0 +1,100 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.glutils.KTXTextureData;
+
+/**
+ * Loads textures like {@link TextureLoader}, but prefers a GPU-compressed sibling of the requested
+ * image when the GL can sample it: {@code <name>.dxt5.zktx} where S3TC is supported, as on nearly
+ * every desktop GPU, else {@code <name>.etc2.zktx} on GL ES 3 class hardware, else the image itself.
+ * Both formats take a quarter of the memory of RGBA8888 and are uploaded as they are, with no
+ * decoding on the CPU. The asset keeps the name it was requested under, so callers never know
+ * which file was read.
+ */
+class GpuTextureLoader extends TextureLoader {
+    static final String DXT5 = ".dxt5.zktx";
+    static final String ETC2 = ".etc2.zktx";
+
+    private static final int GL_COMPRESSED_RGB_S3TC_DXT1 = 0x83F0;
+    private static final int GL_COMPRESSED_RGBA_S3TC_DXT1 = 0x83F1;
+    private static final int GL_COMPRESSED_RGBA_S3TC_DXT5 = 0x83F3;
+    private static final int GL_COMPRESSED_RGBA8_ETC2_EAC = 0x9278;
+    private static final int GL_ETC1_RGB8 = 0x8D64;
+    private static final int GL_COMPRESSED_RGB8_ETC2 = 0x9274;
+    private static final int GL_COMPRESSED_RGB8_PUNCHTHROUGH_ALPHA1_ETC2 = 0x9276;
+
+    // Null when nothing compressed can be sampled; decided on the render thread, where GL can be asked.
+    private final String suffix;
+
+    GpuTextureLoader(FileHandleResolver resolver) {
+        super(resolver);
+        suffix = supportedSuffix();
+    }
+
+    private static String supportedSuffix() {
+        if (Gdx.graphics == null || Gdx.app == null) return null;
+        if (Gdx.graphics.supportsExtension("GL_EXT_texture_compression_s3tc")) return DXT5;
+        Application.ApplicationType type = Gdx.app.getType();
+        boolean mobile = type == Application.ApplicationType.Android || type == Application.ApplicationType.iOS;
+        // ETC2 is core in GL ES 3.0, and in desktop GL with ES 3 compatibility.
+        if ((mobile && Gdx.graphics.isGL30Available()) || Gdx.graphics.supportsExtension("GL_ARB_ES3_compatibility")) {
+            return ETC2;
+        }
+        return null;
+    }
+
+    /** The format compressed siblings are read in, e.g. {@value #DXT5}, or null if only images are. */
+    String getCompressedSuffix() {
+        return suffix;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, TextureParameter parameter) {
+        super.loadAsync(manager, fileName, compressedSibling(file), parameter);
+    }
+
+    private FileHandle compressedSibling(FileHandle file) {
+        if (suffix == null) return file;
+        FileHandle compressed = file.sibling(file.nameWithoutExtension() + suffix);
+        return compressed.exists() ? compressed : file;
+    }
+
+    /** GPU memory of compressed texture data, by its block size. */
+    static long compressedBytes(KTXTextureData data) {
+        long blocks = (long) ((data.getWidth() + 3) / 4) * ((data.getHeight() + 3) / 4);
+        long bytes = blocks * blockBytes(data.getGlInternalFormat()) * data.getNumberOfFaces();
+        return data.getNumberOfMipMapLevels() > 1 || data.useMipMaps() ? bytes * 4 / 3 : bytes;
+    }
+
+    private static int blockBytes(int glInternalFormat) {
+        switch (glInternalFormat) {
+            case GL_COMPRESSED_RGB_S3TC_DXT1:
+            case GL_COMPRESSED_RGBA_S3TC_DXT1:
+            case GL_ETC1_RGB8:
+            case GL_COMPRESSED_RGB8_ETC2:
+            case GL_COMPRESSED_RGB8_PUNCHTHROUGH_ALPHA1_ETC2:
+                return 8;
+            default:
+                // DXT3, DXT5, ETC2 with EAC alpha: 4x4 pixels in 16 bytes.
+                return 16;
+        }
+    }
+
+    /** A short name for a compressed format, for reports. */
+    static String formatName(KTXTextureData data) {
+        switch (data.getGlInternalFormat()) {
+            case GL_COMPRESSED_RGBA_S3TC_DXT5: return "DXT5";
+            case GL_COMPRESSED_RGBA8_ETC2_EAC: return "ETC2_EAC";
+            case GL_COMPRESSED_RGB_S3TC_DXT1:
+            case GL_COMPRESSED_RGBA_S3TC_DXT1:
+                return "DXT1";
+            case GL_ETC1_RGB8: return "ETC1";
+            default: return "0x" + Integer.toHexString(data.getGlInternalFormat());
+        }
+    }
+}
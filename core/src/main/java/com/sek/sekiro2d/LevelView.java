@@ -0,0 +1,120 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+import com.sek.sekiro2d.level.Level;
+
+/**
+ * Streams a {@link Level}'s chunk art around the camera. The chunks in view, plus
+ * {@value #LOOKAHEAD} more in the direction the camera last moved, are queued on the
+ * {@link GameAssets} manager, which decodes them off the render thread; chunks that aren't loaded
+ * yet are simply not drawn. Once the loaded art weighs more than the texture budget, the least
+ * recently wanted chunks are unloaded, so GPU memory stays bounded however long the level is.
+ * <br>
+ * Art is requested at the resolution {@link GameAssets#variant(String)} picks. When that changes,
+ * e.g. after a resize, every chunk is requested again and shows up once its new variant is loaded.
+ */
+class LevelView implements Disposable {
+    private static final int LOOKAHEAD = 1;
+
+    private final GameAssets assets;
+    private final Level level;
+    private final long textureBudget;
+    // Art paths of every chunk queued or loaded, and the update each was last wanted in.
+    private final IntMap<String> requested = new IntMap<>();
+    private final IntIntMap lastWanted = new IntIntMap();
+    private int stamp;
+    private float lastCameraX = Float.NaN;
+    private int direction = 1;
+    private boolean halfResolution;
+    private int firstVisible, lastVisible;
+
+    /** @param textureBudget bytes of chunk art to keep loaded, beyond the chunks that are wanted now. */
+    LevelView(GameAssets assets, Level level, long textureBudget) {
+        this.assets = assets;
+        this.level = level;
+        this.textureBudget = textureBudget;
+    }
+
+    /** Call once per frame, after the camera moved. */
+    void update(OrthographicCamera camera) {
+        if (assets.isHalfResolution() != halfResolution) {
+            halfResolution = assets.isHalfResolution();
+            dispose();
+        }
+        stamp++;
+        float x = camera.position.x;
+        if (x != lastCameraX && !Float.isNaN(lastCameraX)) {
+            direction = x > lastCameraX ? 1 : -1;
+        }
+        lastCameraX = x;
+
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        firstVisible = level.chunkAt(x - halfWidth);
+        lastVisible = level.chunkAt(x + halfWidth);
+        int first = direction < 0 ? firstVisible - LOOKAHEAD : firstVisible;
+        int last = direction > 0 ? lastVisible + LOOKAHEAD : lastVisible;
+        for (int i = first; i <= last; i++) {
+            if (!level.hasArt(i)) continue;
+            if (!requested.containsKey(i)) {
+                String path = assets.variant(level.artPath(i));
+                assets.queueTexture(path);
+                requested.put(i, path);
+            }
+            lastWanted.put(i, stamp);
+        }
+        trim();
+    }
+
+    private void trim() {
+        while (loadedBytes() > textureBudget) {
+            int oldest = -1;
+            int oldestStamp = stamp;
+            for (IntMap.Entry<String> entry : requested.entries()) {
+                int wanted = lastWanted.get(entry.key, 0);
+                if (wanted < oldestStamp) {
+                    oldest = entry.key;
+                    oldestStamp = wanted;
+                }
+            }
+            if (oldest < 0) return;
+            assets.unloadTexture(requested.remove(oldest));
+            lastWanted.remove(oldest, 0);
+        }
+    }
+
+    private long loadedBytes() {
+        long bytes = 0;
+        for (String path : requested.values()) {
+            if (assets.isTextureLoaded(path)) {
+                bytes += GameAssets.textureBytes(assets.texture(path));
+            }
+        }
+        return bytes;
+    }
+
+    /** Draws the loaded chunks in view; the batch must be drawing with the camera's projection. */
+    void draw(SpriteBatch batch) {
+        float width = level.getChunkWidth();
+        for (int i = firstVisible; i <= lastVisible; i++) {
+            String path = requested.get(i);
+            if (path != null && assets.isTextureLoaded(path)) {
+                Texture art = assets.texture(path);
+                batch.draw(art, i * width, level.getArtY(), width, level.getArtHeight());
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (String path : requested.values()) {
+            assets.unloadTexture(path);
+        }
+        requested.clear();
+        lastWanted.clear();
+    }
+}
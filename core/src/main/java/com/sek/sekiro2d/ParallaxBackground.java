@@ -0,0 +1,154 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+/**
+ * Scrolling background built from the layers in {@value #LAYERS}, drawn far to near. Each layer is
+ * a row of equally wide atlas tiles that repeats without end in both directions, and scrolls at
+ * {@code parallax} times the camera's speed: 1 is fixed to the world, 0 to the screen. Only the
+ * tiles overlapping the camera are submitted, so a frame costs the same however long the level is.
+ * <br>
+ * With {@code mirror}, every other repetition is drawn flipped, so tiles cut from art that was never
+ * meant to wrap meet without a seam.
+ * <br>
+ * The tiles come from {@link GameAssets#BACKGROUND_ATLAS}, not the sprite atlas: they are most of the
+ * game's pixels, so they ship GPU-compressed and in both resolutions. When
+ * {@link GameAssets#isHalfResolution()} changes, the other atlas is loaded in the background and the
+ * current one stays on screen until it is there.
+ */
+class ParallaxBackground implements Disposable {
+    static final String LAYERS = "data/background.json";
+    private static final String FULL_ATLAS = GameAssets.BACKGROUND_ATLAS;
+    private static final String HALF_ATLAS = GameAssets.halfVariant(GameAssets.BACKGROUND_ATLAS);
+
+    private static class Layer {
+        TextureRegion[] tiles;
+        float parallax;
+        float y, tileWidth, height;
+        boolean mirror;
+    }
+
+    private final GameAssets assets;
+    private final JsonValue definitions;
+    private final Array<Layer> layers = new Array<>();
+    // The atlas the layers are cut from, null until the first one loads, and the one queued to replace it.
+    private String shown;
+    private String pending;
+
+    /** Queues the atlas for the current resolution; nothing is drawn until {@link #update()} finds it loaded. */
+    ParallaxBackground(GameAssets assets) {
+        this.assets = assets;
+        definitions = new JsonReader().parse(Gdx.files.internal(LAYERS));
+        pending = atlasFor(assets.isHalfResolution());
+        assets.queueTextureAtlas(pending);
+    }
+
+    private static String atlasFor(boolean halfResolution) {
+        return halfResolution ? HALF_ATLAS : FULL_ATLAS;
+    }
+
+    /**
+     * Call once per frame before the batch begins, as it may unload the texture drawn so far.
+     * Returns true when the layers changed to a newly loaded atlas, so anything caching them must
+     * be drawn again.
+     */
+    boolean update() {
+        String wanted = atlasFor(assets.isHalfResolution());
+        if (!wanted.equals(pending != null ? pending : shown)) {
+            if (pending != null) {
+                assets.unloadTextureAtlas(pending);
+                pending = null;
+            }
+            if (!wanted.equals(shown)) {
+                pending = wanted;
+                assets.queueTextureAtlas(pending);
+            }
+        }
+        if (pending == null || !assets.isTextureAtlasLoaded(pending)) return false;
+        if (shown != null) {
+            assets.unloadTextureAtlas(shown);
+        }
+        shown = pending;
+        pending = null;
+        // Half-resolution tiles cover the same world space with half the texels.
+        cutLayers(assets.textureAtlas(shown), shown.equals(HALF_ATLAS) ? 2 : 1);
+        return true;
+    }
+
+    /** True while an atlas is loading, so the caller keeps rendering until it shows. */
+    boolean isLoading() {
+        return pending != null;
+    }
+
+    private void cutLayers(TextureAtlas atlas, float texelSize) {
+        layers.clear();
+        for (JsonValue definition = definitions.child; definition != null; definition = definition.next) {
+            Layer layer = new Layer();
+            String pattern = definition.getString("tiles");
+            layer.tiles = new TextureRegion[definition.getInt("count")];
+            for (int i = 0; i < layer.tiles.length; i++) {
+                layer.tiles[i] = GameAssets.findRegion(atlas, String.format(pattern, i + 1));
+            }
+            layer.parallax = definition.getFloat("parallax");
+            layer.y = definition.getFloat("y");
+            layer.mirror = definition.getBoolean("mirror", false);
+            float scale = definition.getFloat("scale", 1) * texelSize;
+            TextureRegion first = layer.tiles[0];
+            for (TextureRegion tile : layer.tiles) {
+                if (tile.getRegionWidth() != first.getRegionWidth() || tile.getRegionHeight() != first.getRegionHeight()) {
+                    throw new GdxRuntimeException("Background layer " + definition.name + " has tiles of different sizes");
+                }
+            }
+            layer.tileWidth = first.getRegionWidth() * scale;
+            layer.height = first.getRegionHeight() * scale;
+            layers.add(layer);
+        }
+    }
+
+    /** Draws the tiles {@code camera} sees; the batch must be drawing with the camera's projection. */
+    void draw(SpriteBatch batch, OrthographicCamera camera) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float left = camera.position.x - halfWidth;
+        float right = camera.position.x + halfWidth;
+        for (int l = 0; l < layers.size; l++) {
+            Layer layer = layers.get(l);
+            // Where tile 0 starts: a layer moving at a fraction of the camera's speed drifts along with it.
+            float origin = camera.position.x * (1 - layer.parallax);
+            int first = (int) Math.floor((left - origin) / layer.tileWidth);
+            int last = (int) Math.floor((right - origin) / layer.tileWidth);
+            int count = layer.tiles.length;
+            for (int i = first; i <= last; i++) {
+                float x = origin + i * layer.tileWidth;
+                int index = Math.floorMod(i, count);
+                if (layer.mirror && (Math.floorDiv(i, count) & 1) != 0) {
+                    // Reversed order and a negative width flip the whole repetition.
+                    batch.draw(layer.tiles[count - 1 - index], x + layer.tileWidth, layer.y, -layer.tileWidth, layer.height);
+                } else {
+                    batch.draw(layer.tiles[index], x, layer.y, layer.tileWidth, layer.height);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (shown != null) {
+            assets.unloadTextureAtlas(shown);
+            shown = null;
+        }
+        if (pending != null) {
+            assets.unloadTextureAtlas(pending);
+            pending = null;
+        }
+        layers.clear();
+    }
+}
@@ -0,0 +1,92 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.HdpiUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * A picture of a scene that costs a lot of fill to draw but rarely changes, kept in a frame buffer
+ * the size of the viewport on screen. Once captured it is drawn back as one opaque quad, pixel for
+ * pixel, until {@link #invalidate()}. Where no frame buffer can be made the cache stays invalid and
+ * callers keep drawing the scene themselves.
+ */
+class ScreenCache implements Disposable {
+    private final Viewport viewport;
+    private FrameBuffer buffer;
+    private boolean valid;
+    private boolean unsupported;
+
+    ScreenCache(Viewport viewport) {
+        this.viewport = viewport;
+    }
+
+    /** Call when the scene or the viewport changes, or the GL context may have lost the picture. */
+    void invalidate() {
+        valid = false;
+    }
+
+    /** True if the picture is current and {@link #draw} can stand in for the scene. */
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Redirects drawing into the cache, which the caller then clears and fills. Returns false, and
+     * captures nothing, if there is no frame buffer to draw into.
+     */
+    boolean begin() {
+        if (unsupported) return false;
+        int width = HdpiUtils.toBackBufferX(viewport.getScreenWidth());
+        int height = HdpiUtils.toBackBufferY(viewport.getScreenHeight());
+        // Minimized; there is nothing to capture until the next resize.
+        if (width <= 0 || height <= 0) return false;
+        if (buffer == null || buffer.getWidth() != width || buffer.getHeight() != height) {
+            disposeBuffer();
+            try {
+                buffer = new FrameBuffer(Pixmap.Format.RGB888, width, height, false);
+            } catch (GdxRuntimeException | IllegalStateException e) {
+                // The latter is how an incomplete or unsupported frame buffer is reported.
+                Gdx.app.error("ScreenCache", "No frame buffer, drawing every frame instead", e);
+                unsupported = true;
+                return false;
+            }
+        }
+        buffer.begin();
+        return true;
+    }
+
+    /** Ends a capture started by {@link #begin()}, and points GL back at the viewport. */
+    void end() {
+        buffer.end();
+        viewport.apply();
+        valid = true;
+    }
+
+    /** Draws the picture over the given area without blending; the batch must be drawing. */
+    void draw(SpriteBatch batch, float x, float y, float width, float height) {
+        Texture texture = buffer.getColorBufferTexture();
+        batch.disableBlending();
+        // Frame buffers are stored bottom-up.
+        batch.draw(texture, x, y, width, height, 0, 0, texture.getWidth(), texture.getHeight(), false, true);
+        batch.enableBlending();
+    }
+
+    private void disposeBuffer() {
+        if (buffer != null) {
+            buffer.dispose();
+            buffer = null;
+        }
+        valid = false;
+    }
+
+    @Override
+    public void dispose() {
+        disposeBuffer();
+    }
+}
@@ -1,425 +1,67 @@
 package com.sek.sekiro2d;
+import com.artemis.Aspect;
+import com.artemis.ComponentMapper;
+import com.artemis.EntitySubscription;
+import com.artemis.World;
+import com.artemis.utils.IntBag;
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
 import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.controllers.Controllers;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-
-abstract class GameObject implements Disposable {
-    protected float x, y;
-    protected Rectangle bounds;
-    protected float speed;
-
-    public GameObject(float x, float y, float width, float height, float speed) {
-        this.x = x;
-        this.y = y;
-        this.bounds = new Rectangle(x, y, width, height);
-        this.speed = speed;
-    }
-
-    public void updateBounds() {
-        bounds.setPosition(x, y);
-    }
-
-    public Rectangle getBounds() {
-        return bounds;
-    }
-
-    public float getX() { return x; }
-    public float getY() { return y; }
-    public void setX(float x) {
-        this.x = x;
-        updateBounds();
-    }
-    public void setY(float y) {
-        this.y = y;
-        updateBounds();
-    }
-
-    @Override
-    public void dispose() {}
-}
-
-class Player extends GameObject {
-    private static final float ATTACK_DURATION = 0.4f;
-    private static final float WEAPON_WIDTH = 130;
-    private static final float WEAPON_HEIGHT = 5;
-    private static final float MAX_ROTATION = 90f;
-
-    private int health;
-    private boolean isGrounded;
-    private float verticalVelocity;
-    private boolean isDead;
-    private Rectangle weapon;
-    private float weaponRotation;
-    private float attackTimer;
-    private boolean isAttacking;
-    private boolean isRightFacing;
-    private final Texture[] idleRight;
-    private final Texture[] idleLeft;
-    private final Texture[] attack;
-    private final Texture[] attackLeft;
-    private final Texture[] walkRight;
-    private final Texture[] walkLeft;
-    private final Texture[] deathRight;
-    private float animationTime;
-    private Texture currentTexture;
-    private float lastHealTime = 0;
-    private static final float COOLDOWN = 2.0f;
-
-    public Player(float x, float y, float speed, int health) {
-        super(x, y, 100, 100, speed);
-        this.health = health;
-        this.isGrounded = true;
-        this.weapon = new Rectangle(x, y + y/2, WEAPON_WIDTH, WEAPON_HEIGHT);
-        this.isRightFacing = true;
-
-        idleRight = new Texture[3];
-        idleLeft = new Texture[3];
-        attack = new Texture[5];
-        attackLeft = new Texture[5];
-        walkRight = new Texture[2];
-        walkLeft = new Texture[2];
-        deathRight = new Texture[6];
-
-        loadTextures();
-        currentTexture = idleRight[0];
-    }
-
-    private void loadTextures() {
-        try {
-            // Load attack animations
-            for (int i = 0; i < 5; i++) {
-                String path = "attack/attack" + (i+1) + ".png";
-                String pathLeft = "attack/attackLeft" + (i + 1) + ".png";
-                attack[i] = new Texture(path);
-                attackLeft[i] = new Texture(pathLeft);
-                System.out.println("Successfully loaded attack texture: " + path);
-            }
-
-            // Load idle animations
-            for (int i = 0; i < 3; i++) {
-                idleRight[i] = new Texture("idle/idle_" + (i+1) + "_right.png");
-                idleLeft[i] = new Texture("idle/idle_" + (i+1) + "_left.png");
-            }
-
-            // Load walk animations
-            walkLeft[0] = new Texture("walk/walk_left_1.png");
-            walkLeft[1] = new Texture("walk/walk_left_2.png");
-            walkRight[0] = new Texture("walk/walk_right_1.png");
-            walkRight[1] = new Texture("walk/walk_right_2.png");
-
-            for (int i = 0; i< 6 ;i ++ ){
-                deathRight[i] = new Texture("death/death" + (i+ 1) + ".png");
-            }
-
-        } catch (Exception e) {
-            System.err.println("Error loading textures: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    public void update(float delta) {
-        updateAnimation(delta);
-        updateAttack(delta);
-        handlePlayerDeath(delta);
-        updateBounds();
-    }
-
-    private void updateAnimation(float delta) {
-        animationTime += delta;
-
-        if (isAttacking) {
-            float progress = Math.min(attackTimer / ATTACK_DURATION, 1.0f);
-            int frame = (int)((progress * 5) % 5);
-            if (frame < attack.length) {
-                currentTexture = (getRightFacing() ? attack : attackLeft)[frame];
-            }
-        } else if (Gdx.input.isKeyPressed(Input.Keys.A)) {
-            int frame = (int)(animationTime * 10) % walkLeft.length;
-            currentTexture = walkLeft[frame];
-            isRightFacing = false;
-        } else if (Gdx.input.isKeyPressed(Input.Keys.D)) {
-            int frame = (int)(animationTime * 10) % walkRight.length;
-            currentTexture = walkRight[frame];
-            isRightFacing = true;
-        } else {
-            Texture[] currentAnim = isRightFacing ? idleRight : idleLeft;
-            int frame = (int)(animationTime * 5) % currentAnim.length;
-            currentTexture = currentAnim[frame];
-        }
-
-        if (Gdx.input.isKeyPressed(Input.Keys.R) && (TimeUtils.nanoTime() - lastHealTime) / 1_000_000_000.0f >= COOLDOWN) {
-            setHealth(getHealth() + 30);
-            lastHealTime = TimeUtils.nanoTime();
-        }
-    }
-
-    private void handlePlayerDeath(float delta){
-        animationTime += delta;
-        if(isDead){
-            int frame = (int)(animationTime * 10) % deathRight.length;
-            currentTexture = deathRight[frame];
-
-        }
-    }
-
-    public void move(float deltaX, float deltaY) {
-        x += deltaX;
-        y += deltaY;
-        updateBounds();
-    }
-
-    @Override
-    public void updateBounds() {
-        super.updateBounds();
-        if (isRightFacing) {
-            weapon.setPosition(x + bounds.width * 0.7f, y + bounds.height * 0.5f);
-        } else {
-            weapon.setPosition(x - weapon.width * 0.5f, y + bounds.height * 0.5f);
-        }
-    }
-
-    public void playerAttackOne() {
-        if (!isAttacking) {
-            isAttacking = true;
-            attackTimer = 0;
-            animationTime = 0;
-        }
-    }
-
-    public void updateAttack(float delta) {
-        if (isAttacking) {
-            attackTimer += delta;
-            float progress = Math.min(attackTimer / ATTACK_DURATION, 1.0f);
-
-            if (getRightFacing()) {
-                weaponRotation = 90 - (progress * 90);
-            } else {
-                weaponRotation = 90 + (progress * 90);
-            }
-
-            if (attackTimer >= ATTACK_DURATION) {
-                isAttacking = false;
-                attackTimer = 0;
-                weaponRotation = 0;
-            }
-        }
-    }
-    // Getters and setters
-    public boolean isGrounded() { return isGrounded; }
-    public void setGrounded(boolean grounded) { isGrounded = grounded; }
-    public float getVerticalVelocity() { return verticalVelocity; }
-    public void setVerticalVelocity(float velocity) { verticalVelocity = velocity; }
-    public boolean isDead() { return isDead; }
-    public void setDead(boolean isDead){ this.isDead = isDead; }
-    public void handleDeath() { isDead = true; }
-    public int getHealth() { return health; }
-    public void setHealth(int health) { this.health = health; }
-    public Rectangle getWeapon() { return weapon; }
-    public float getWeaponRotation() { return weaponRotation; }
-    public boolean getIsAttacking() { return isAttacking; }
-    public Texture getCurrentTexture() { return currentTexture; }
-    public boolean getRightFacing() { return isRightFacing; }
-
-    @Override
-    public void dispose() {
-        for (Texture texture : idleRight) texture.dispose();
-        for (Texture texture : idleLeft) texture.dispose();
-        for (Texture texture : attack) texture.dispose();
-        for (Texture texture : walkRight) texture.dispose();
-        for (Texture texture : walkLeft) texture.dispose();
-    }
-}
-
-class Enemy extends GameObject {
-    private static final float ATTACK_DURATION = 0.4f;
-    private static final float ATTACK_RANGE = 120f;  // Range within which enemy can attack
-    private static final float ATTACK_COOLDOWN = 1.5f;
-
-    private final Texture[] walkLeft;
-    private final Texture[] walkRight;
-    private final Texture[] attack;
-    private final Texture[] attackLeft;
-    private Texture currentTexture;
-    private float animationTime;
-    private boolean isRightFacing;
-    private boolean isAttacking;
-    private float attackTimer;
-    private float cooldownTimer;
-    private Rectangle attackHitbox;
-    private int health;
-    private boolean dead;
-
-    public Enemy(float x, float y, float speed) {
-        super(x, y, 100, 150, speed);
-        walkLeft = new Texture[2];
-        walkRight = new Texture[2];
-        attack = new Texture[5];
-        attackLeft = new Texture[5];
-        attackHitbox = new Rectangle(x, y, 150, 40);
-        health = 10;
-        loadTextures();
-        currentTexture = walkRight[0];
-        isRightFacing = true;
-    }
-
-    private void loadTextures() {
-        try {
-            // Load walk animations
-            walkLeft[0] = new Texture("enemy/move/walk_left_1.png");
-            walkLeft[1] = new Texture("enemy/move/walk_left_2.png");
-            walkRight[0] = new Texture("enemy/move/walk_right_1.png");
-            walkRight[1] = new Texture("enemy/move/walk_right_2.png");
-
-            // Load melee attack animations
-            for (int i = 0; i < 5; i++) {
-                attack[i] = new Texture("enemy/attack/e_attack_right_" + (i+1) + ".png");
-                attackLeft[i] = new Texture("enemy/attack/e_attack" + (i+1) + ".png");
-            }
-        } catch (Exception e) {
-            System.err.println("Error loading enemy textures: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    public void update(float delta, Player player) {
-        updateAttackCooldown(delta);
-
-        if (!isAttacking) {
-            float distance = getDistanceToPlayer(player);
-
-            // Check if within attack range and cooldown is ready
-            if (cooldownTimer <= 0 && distance <= ATTACK_RANGE) {
-                if (Math.random() < 0.3) { // 30% chance to attack when in range
-                    startAttack();
-                }
-            }
-
-            if (!isAttacking) {
-                moveTowards(player, delta);
-            }
-        }
-
-        updateAnimation(delta);
-        updateAttack(delta);
-        updateHitbox();
-    }
-
-    private float getDistanceToPlayer(Player player) {
-        float dx = player.getX() - x;
-        float dy = player.getY() - y;
-        return (float) Math.sqrt(dx * dx + dy * dy);
-    }
-
-    private void moveTowards(Player player, float delta) {
-        float dx = player.getX() - x;
-        float distance = Math.abs(dx);
-
-        if (distance > 50) {
-            animationTime += delta;
-            x += Math.signum(dx) * speed * delta;
-            isRightFacing = dx > 0;
-
-            Texture[] currentAnim = isRightFacing ? walkRight : walkLeft;
-            int frame = (int)(animationTime * 10) % currentAnim.length;
-            currentTexture = currentAnim[frame];
-
-            updateBounds();
-        }
-    }
-
-    private void startAttack() {
-        isAttacking = true;
-        attackTimer = 0;
-        animationTime = 0;
-    }
-
-    private void updateAttack(float delta) {
-        if (isAttacking) {
-            attackTimer += delta;
-            float progress = Math.min(attackTimer / ATTACK_DURATION, 1.0f);
-
-            // Update attack animation
-            Texture[] currentAnim = isRightFacing ? attack : attackLeft;
-            int frame = (int)((progress * 5) % 5);
-            if (frame < currentAnim.length) {
-                currentTexture = currentAnim[frame];
-            }
-
-            if (attackTimer >= ATTACK_DURATION) {
-                isAttacking = false;
-                cooldownTimer = ATTACK_COOLDOWN;
-            }
-        }
-    }
-
-    private void updateAttackCooldown(float delta) {
-        if (cooldownTimer > 0) {
-            cooldownTimer -= delta;
-        }
-    }
-
-    private void updateAnimation(float delta) {
-        if (!isAttacking) {
-            animationTime += delta;
-            Texture[] currentAnim = isRightFacing ? walkRight : walkLeft;
-            int frame = (int)(animationTime * 10) % currentAnim.length;
-            currentTexture = currentAnim[frame];
-        }
-    }
-
-    private void updateHitbox() {
-        if (isAttacking) {
-            if (isRightFacing) {
-                attackHitbox.setPosition(x + bounds.width, y);
-            } else {
-                attackHitbox.setPosition(x - attackHitbox.width, y);
-            }
-        }
-    }
-
-    // Getters and setters
-    public Rectangle getAttackHitbox() { return attackHitbox; }
-    public boolean isAttacking() { return isAttacking; }
-    public Texture getCurrentTexture() { return currentTexture; }
-    public int getHealth() { return health; }
-    public void setHealth(int health) { this.health = health; }
-    public boolean isDead(){ return dead; }
-    public void setDead(boolean isDead){ this.dead = isDead; }
-
-
-    @Override
-    public void dispose() {
-        for (Texture texture : walkLeft) texture.dispose();
-        for (Texture texture : walkRight) texture.dispose();
-        for (Texture texture : attack) texture.dispose();
-        for (Texture texture : attackLeft) texture.dispose();
-    }
-}
+import com.sek.sekiro2d.component.DamageNumber;
+import com.sek.sekiro2d.component.Health;
+import com.sek.sekiro2d.component.HitSpark;
+import com.sek.sekiro2d.component.Hitbox;
+import com.sek.sekiro2d.component.Lifetime;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Weapon;
+import com.sek.sekiro2d.input.Action;
+import com.sek.sekiro2d.input.CommandBuffer;
+import com.sek.sekiro2d.input.ControllerCommands;
+import com.sek.sekiro2d.input.KeyboardCommands;
+import com.sek.sekiro2d.input.PlayerCommands;
+import com.sek.sekiro2d.input.Replay;
+import com.sek.sekiro2d.system.CombatSystem;
+import com.sek.sekiro2d.system.PhysicsSystem;
+import com.sek.sekiro2d.system.SpriteRenderSystem;
 
 public class SekiroGame extends ApplicationAdapter {
     private static final float WORLD_WIDTH = 1000;
     private static final float WORLD_HEIGHT = 520;
-    private static final float GRAVITY = -0.5f;
-    private static final float FLOOR_HEIGHT = 90f;
-    private static final float JUMP_VELOCITY = 17f;
-    private static final float PLAYER_WIDTH = 150;
-    private static final float PLAYER_HEIGHT = 150;
-    private static final float ATTACK_SPRITE_SCALE = 2.5f;
-    private boolean hasPlayerHitInCurrentAttack = false;
-    private boolean hasEnemyHitInCurrentAttack = false;
+    // The simulation advances in fixed steps of game time, which runs at TIME_SCALE of real time.
+    private static final float TIME_SCALE = GameSimulation.TIME_SCALE;
+    private static final float STEP = GameSimulation.STEP;
+    private static final float MAX_FRAME_TIME = 0.25f;
+    // Upper bound on asset work per frame while loading, so the loading screen stays responsive.
+    private static final int LOAD_BUDGET_MILLIS = 8;
+    // While playing only level chunks stream in, and their decoding happens off the render thread.
+    private static final int STREAM_BUDGET_MILLIS = 2;
+    // Frames of the first round to leave out of the allocation figures while pools and caches fill.
+    private static final int ALLOCATION_WARM_UP_FRAMES = 300;
+    // Four chunks of level art; the camera never wants more than three at once.
+    private static final long LEVEL_TEXTURE_BUDGET = 8 * 1024 * 1024;
+    // The most a batch can hold with 16-bit indices; a crowd of 10k then flushes twice, not ten times.
+    private static final int BATCH_SPRITES = 8191;
+    // Far more events than a frame ever sees; older ones are only dropped after a very long stall.
+    private static final int COMMAND_CAPACITY = 256;
+    private static final int PROFILER_KEY = Input.Keys.F3;
 
 
     //
@@ -428,39 +70,100 @@ public class SekiroGame extends ApplicationAdapter {
     private static final Color BUTTON_COLOR = new Color(0.2f, 0.2f, 0.2f, 0.8f);
     private static final Color BUTTON_HOVER_COLOR = new Color(0.3f, 0.3f, 0.3f, 0.8f);
     private static final Color TEXT_COLOR = new Color(1, 1, 1, 1);
-    private enum GameState { MENU, PLAYING }
+    private static final Color MENU_SHADE = new Color(0, 0, 0, 0.5f);
+    // HUD positions in screen units; the bars sit where they used to relative to the followed player.
+    private static final float PLAYER_BAR_X = 55;
+    private static final float ENEMY_BAR_X = 245;
+    private enum GameState { LOADING, MENU, PLAYING }
     private GameState currentState;
     private Rectangle startButton;
     private Rectangle quitButton;
-    private ShapeRenderer menuShapeRenderer;
-    private Texture menuBackground;
     //
 
 
     private SpriteBatch batch;
+    private Fonts fonts;
+    // The HUD font; fixed text is laid out once by fonts, HUD values only when they change.
     private BitmapFont font;
-    private Player player;
-    private Enemy enemy;
+    private final ValueLabel playerHealthLabel = new ValueLabel("Player Health: ");
+    private final ValueLabel enemyHealthLabel = new ValueLabel("Enemy Health: ");
+    private final Vector3 pointer = new Vector3();
+    private AllocationCounter allocations;
+    private int allocationWarmUpFrames = -1;
+    private FrameProfiler profiler;
+    private GameSimulation simulation;
+    private final CommandBuffer commands = new CommandBuffer(COMMAND_CAPACITY);
+    private final PlayerCommands playerCommands = new PlayerCommands();
+    private ControllerCommands controllerCommands;
+    private long lastStepInputTime;
+    private SpriteRenderSystem spriteRenderer;
+    private EntitySubscription enemies;
+    private EntitySubscription sparks;
+    private EntitySubscription damageNumbers;
+    private ComponentMapper<Position> positions;
+    private ComponentMapper<Health> healths;
+    private ComponentMapper<Hitbox> hitboxes;
+    private ComponentMapper<Weapon> weapons;
+    private ComponentMapper<Lifetime> lifetimes;
+    private ComponentMapper<HitSpark> hitSparks;
+    private ComponentMapper<DamageNumber> numbers;
+    private final IntMap<String> damageLabels = new IntMap<>();
+    private final int enemyCount;
+    private final String replayFile;
+    private final String metricsFile;
+    private Replay replay;
     private FitViewport viewport;
     private OrthographicCamera camera;
+    // Screen-space camera for the menu, HUD and game over text; it never follows the player.
+    private OrthographicCamera hudCamera;
     private ShapeRenderer shapeRenderer;
-    private Texture background;
-    private boolean gameOver;
+    private GameAssets assets;
+    private ParallaxBackground background;
+    // The menu's background and shade; only the buttons are drawn on each frame.
+    private ScreenCache menuBackdrop;
+    // True while the menu or game over screen is up and frames are only drawn on input.
+    private boolean idle;
+    private LevelView levelView;
+    private TextureRegion white;
+    private long createTime;
+    private float accumulator;
+
+    public SekiroGame() {
+        this(1);
+    }
+
+    /** @param enemyCount enemies spawned per round; more than one is a stress test of the simulation. */
+    public SekiroGame(int enemyCount) {
+        this(enemyCount, null, null);
+    }
+
+    /**
+     * @param replayFile where to write a {@link Replay} of the whole session on exit, relative to the
+     *        working directory, or null to not record.
+     * @param metricsFile where to keep a rolling CSV log of frame metrics, relative to the working
+     *        directory, or null for none; the overlay works either way.
+     */
+    public SekiroGame(int enemyCount, String replayFile, String metricsFile) {
+        this.enemyCount = Math.max(1, enemyCount);
+        this.replayFile = replayFile;
+        this.metricsFile = metricsFile;
+    }
 
     @Override
     public void create() {
-        currentState = GameState.MENU;
+        createTime = TimeUtils.millis();
+        currentState = GameState.LOADING;
 
-        batch = new SpriteBatch();
-        font = new BitmapFont();
-        font.setColor(Color.WHITE);
-        font.getData().setScale(2f);
-        player = new Player(400, FLOOR_HEIGHT, 200, 100);
-        enemy = new Enemy(100, FLOOR_HEIGHT, 100);
+        batch = new SpriteBatch(BATCH_SPRITES);
+        allocations = new AllocationCounter();
+        profiler = new FrameProfiler(metricsFile != null ? Gdx.files.local(metricsFile) : null);
 
         camera = new OrthographicCamera();
         viewport = new FitViewport(WORLD_WIDTH, WORLD_HEIGHT, camera);
         viewport.apply();
+        menuBackdrop = new ScreenCache(viewport);
+        hudCamera = new OrthographicCamera();
+        hudCamera.setToOrtho(false, WORLD_WIDTH, WORLD_HEIGHT);
 
         //
         float centerX = WORLD_WIDTH / 2 - BUTTON_WIDTH / 2;
@@ -470,264 +173,323 @@ public class SekiroGame extends ApplicationAdapter {
 
         camera.position.set(viewport.getWorldWidth() / 2, viewport.getWorldHeight() / 2, 0);
 
-        menuShapeRenderer = new ShapeRenderer();
-
-        player = new Player(400, FLOOR_HEIGHT, 200, 100);
-        enemy = new Enemy(100, FLOOR_HEIGHT, 100);
         shapeRenderer = new ShapeRenderer();
-        background = new Texture("background/background.jpg");
 
-        gameOver = false;
-        menuBackground = background;
+        InputAdapter debugKeys = new InputAdapter() {
+            @Override
+            public boolean keyDown(int keycode) {
+                if (keycode != PROFILER_KEY) return false;
+                profiler.toggleOverlay();
+                if (simulation != null) {
+                    simulation.setSystemTiming(profiler.isActive());
+                }
+                return true;
+            }
+        };
+        Gdx.input.setInputProcessor(new InputMultiplexer(debugKeys, new KeyboardCommands(commands)));
+        controllerCommands = new ControllerCommands(commands);
+        Controllers.addListener(controllerCommands);
+        assets = new GameAssets();
+        assets.queueAtlas();
+        background = new ParallaxBackground(assets);
+    }
+
+    private void onAssetsLoaded() {
+        // The game keeps its own atlas reference so restarts never drop the count to zero.
+        assets.acquireAtlas();
+        createSimulation();
+        levelView = new LevelView(assets, simulation.getLevel(), LEVEL_TEXTURE_BUDGET);
+        background.update();
+        white = assets.whitePixel();
+        createFont();
+
+        currentState = GameState.MENU;
+        Gdx.app.log("Assets", "First interactive frame after " + TimeUtils.timeSinceMillis(createTime) + " ms");
+        Gdx.app.log("Assets", assets.getMemoryReport());
+    }
+
+    /** The fonts come from the atlas, so they are only built once the atlas has loaded. */
+    private void createFont() {
+        fonts = new Fonts(assets);
+        font = fonts.get(Fonts.UI);
+        font.setColor(TEXT_COLOR);
+        fonts.get(Fonts.TITLE).setColor(TEXT_COLOR);
+    }
+
+    private void createSimulation() {
+        long seed = MathUtils.random.nextLong();
+        simulation = new GameSimulation(enemyCount, assets, seed);
+        if (replayFile != null) {
+            replay = new Replay(seed, enemyCount, GameAssets.LEVEL);
+            simulation.setRecording(replay);
+        }
+        simulation.setSystemTiming(profiler.isActive());
+        World world = simulation.getWorld();
+        spriteRenderer = world.getSystem(SpriteRenderSystem.class);
+        enemies = simulation.getEnemies();
+        sparks = world.getAspectSubscriptionManager().get(Aspect.all(HitSpark.class, Position.class, Lifetime.class));
+        damageNumbers = world.getAspectSubscriptionManager().get(Aspect.all(DamageNumber.class, Position.class, Lifetime.class));
+        simulation.reserveSubscriptions();
+        positions = world.getMapper(Position.class);
+        healths = world.getMapper(Health.class);
+        hitboxes = world.getMapper(Hitbox.class);
+        weapons = world.getMapper(Weapon.class);
+        lifetimes = world.getMapper(Lifetime.class);
+        hitSparks = world.getMapper(HitSpark.class);
+        numbers = world.getMapper(DamageNumber.class);
     }
 
     @Override
     public void render() {
-        if (currentState == GameState.MENU) {
+        allocations.begin();
+        if (currentState == GameState.LOADING) {
+            if (assets.update(LOAD_BUDGET_MILLIS)) {
+                onAssetsLoaded();
+            } else {
+                drawLoading();
+            }
+        } else if (currentState == GameState.MENU) {
+            // Loads the background in the other resolution after a resize.
+            assets.update(STREAM_BUDGET_MILLIS);
             updateMenu();
             drawMenu();
         } else {
-            float realTime = Gdx.graphics.getDeltaTime();
-            float delta = realTime * 0.7f;
+            assets.update(STREAM_BUDGET_MILLIS);
+            // Time spent waiting for input on the game over screen isn't owed to a restarted round.
+            float realTime = idle ? 0 : Math.min(Gdx.graphics.getDeltaTime(), MAX_FRAME_TIME);
 
-            if (!gameOver) {
-                update(delta);
-                draw();
+            if (simulation.isOver()) {
+                handleGameOverCommands();
+            }
+            if (!simulation.isOver()) {
+                accumulator += realTime * TIME_SCALE;
+                profiler.begin(FrameProfiler.Section.SIMULATION);
+                stepSimulation();
+                profiler.end(FrameProfiler.Section.SIMULATION);
+                profiler.add(FrameProfiler.Section.COLLISIONS,
+                    simulation.takeSystemNanos(PhysicsSystem.class) + simulation.takeSystemNanos(CombatSystem.class));
+                draw(accumulator / STEP);
             } else {
-                drawGameOver(delta);
+                drawGameOver(realTime * TIME_SCALE);
             }
         }
+        if (font != null) {
+            profiler.draw(batch, font);
+        }
+        profiler.endFrame(batch);
+        updateRenderingMode();
+        allocations.end();
+        if (allocationWarmUpFrames > 0 && --allocationWarmUpFrames == 0) {
+            allocations.reset();
+        }
     }
 
+    /**
+     * Renders continuously only while something on screen moves by itself. The menu and game over
+     * screen are still, so they are drawn when input arrives, which also covers hovering a button.
+     * The profiler overlay keeps frames coming so its figures stay meaningful, and so does a menu
+     * background loading in another resolution, until it shows.
+     */
+    private void updateRenderingMode() {
+        boolean still = (currentState == GameState.MENU && !background.isLoading())
+            || (currentState == GameState.PLAYING && simulation.isOver());
+        boolean wantIdle = still && !profiler.isOverlayVisible();
+        if (wantIdle == idle) return;
+        idle = wantIdle;
+        Gdx.graphics.setContinuousRendering(!idle);
+        if (idle) {
+            // This frame still showed the previous screen; draw the new one once.
+            Gdx.graphics.requestRendering();
+        }
+    }
 
-    private void updateMenu() {
-        Vector3 touchPos = new Vector3();
-        touchPos.set(Gdx.input.getX(), Gdx.input.getY(), 0);
-        viewport.unproject(touchPos);
+    /**
+     * Runs the steps this frame owes. Each step takes the commands recorded up to its share of the
+     * real time since the last step, so input lands in the step closest to when it happened; a
+     * frame with no step leaves the commands buffered for the next one.
+     */
+    private void stepSimulation() {
+        long now = TimeUtils.nanoTime();
+        int steps = (int) (accumulator / STEP);
+        int step = 0;
+        while (accumulator >= STEP && !simulation.isOver()) {
+            step++;
+            long until = step >= steps ? now : lastStepInputTime + (now - lastStepInputTime) * step / steps;
+            playerCommands.apply(commands, until, simulation.getPlayerControl());
+            simulation.step();
+            accumulator -= STEP;
+        }
+        if (step > 0) {
+            lastStepInputTime = now;
+        }
+    }
 
-        if (Gdx.input.justTouched()) {
-            if (startButton.contains(touchPos.x, touchPos.y)) {
-                currentState = GameState.PLAYING;
-            } else if (quitButton.contains(touchPos.x, touchPos.y)) {
+    private void handleGameOverCommands() {
+        while (!commands.isEmpty()) {
+            Action action = commands.peekAction();
+            boolean pressed = commands.peekPressed();
+            commands.pop();
+            if (!pressed) continue;
+            if (action == Action.RESTART) {
+                resetGame();
+                return;
+            }
+            if (action == Action.QUIT) {
                 Gdx.app.exit();
             }
         }
     }
 
-    private void drawMenu() {
+    /** Starts taking commands fresh, dropping anything pressed on the menu or game over screen. */
+    private void startPlaying() {
+        commands.clear();
+        playerCommands.reset();
+        lastStepInputTime = TimeUtils.nanoTime();
+        currentState = GameState.PLAYING;
+        if (allocationWarmUpFrames < 0) {
+            allocationWarmUpFrames = ALLOCATION_WARM_UP_FRAMES;
+        }
+    }
+
+    private void drawLoading() {
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        batch.setProjectionMatrix(camera.combined);
-
-        // Draw background
-        batch.begin();
-        batch.draw(menuBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-        batch.end();
+        float barWidth = WORLD_WIDTH / 2;
+        float barX = WORLD_WIDTH / 2 - barWidth / 2;
+        float barY = WORLD_HEIGHT / 2 - 10;
 
-        // Draw semi-transparent overlay
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        menuShapeRenderer.setProjectionMatrix(camera.combined);
-        menuShapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-        menuShapeRenderer.setColor(0, 0, 0, 0.5f);
-        menuShapeRenderer.rect(0, 0, WORLD_WIDTH, WORLD_HEIGHT);
+        // The atlas isn't there yet, so this is the one screen still drawn with shapes.
+        shapeRenderer.setProjectionMatrix(hudCamera.combined);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(BUTTON_COLOR);
+        shapeRenderer.rect(barX, barY, barWidth, 20);
+        shapeRenderer.setColor(Color.WHITE);
+        shapeRenderer.rect(barX, barY, barWidth * assets.getProgress(), 20);
+        shapeRenderer.end();
+    }
 
-        // Draw buttons
-        Vector3 mousePos = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
-        viewport.unproject(mousePos);
+    private void updateMenu() {
+        // Unprojected once per frame; drawMenu() reads the same position for hover.
+        pointer.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        hudCamera.unproject(pointer, viewport.getScreenX(), viewport.getScreenY(),
+            viewport.getScreenWidth(), viewport.getScreenHeight());
 
-        // Start button
-        if (startButton.contains(mousePos.x, mousePos.y)) {
-            menuShapeRenderer.setColor(BUTTON_HOVER_COLOR);
-        } else {
-            menuShapeRenderer.setColor(BUTTON_COLOR);
+        if (Gdx.input.justTouched()) {
+            if (startButton.contains(pointer.x, pointer.y)) {
+                startPlaying();
+            } else if (quitButton.contains(pointer.x, pointer.y)) {
+                Gdx.app.exit();
+            }
         }
-        menuShapeRenderer.rect(startButton.x, startButton.y, startButton.width, startButton.height);
+    }
 
-        // Quit button
-        if (quitButton.contains(mousePos.x, mousePos.y)) {
-            menuShapeRenderer.setColor(BUTTON_HOVER_COLOR);
-        } else {
-            menuShapeRenderer.setColor(BUTTON_COLOR);
+    /**
+     * The background layers and shade are captured once into {@link #menuBackdrop}, so a frame is one
+     * opaque quad plus the buttons and labels, all from the atlas.
+     */
+    private void drawMenu() {
+        if (background.update()) {
+            menuBackdrop.invalidate();
+        }
+        batch.setProjectionMatrix(hudCamera.combined);
+        if (!menuBackdrop.isValid() && menuBackdrop.begin()) {
+            Gdx.gl.glClearColor(0, 0, 0, 1);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+            batch.begin();
+            drawMenuBackdrop();
+            batch.end();
+            menuBackdrop.end();
         }
-        menuShapeRenderer.rect(quitButton.x, quitButton.y, quitButton.width, quitButton.height);
-        menuShapeRenderer.end();
-        Gdx.gl.glDisable(GL20.GL_BLEND);
 
-        // Draw text
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         batch.begin();
-        font.getData().setScale(1);
-        float startY = startButton.y + startButton.height/2 + font.getCapHeight()/2;
-        float quitY = quitButton.y + quitButton.height/2 + font.getCapHeight()/2;
+        if (menuBackdrop.isValid()) {
+            menuBackdrop.draw(batch, 0, 0, WORLD_WIDTH, WORLD_HEIGHT);
+        } else {
+            drawMenuBackdrop();
+        }
+        fillRect(startButton, startButton.contains(pointer.x, pointer.y) ? BUTTON_HOVER_COLOR : BUTTON_COLOR);
+        fillRect(quitButton, quitButton.contains(pointer.x, pointer.y) ? BUTTON_HOVER_COLOR : BUTTON_COLOR);
 
-        font.draw(batch, "Start Game", startButton.x + 30, startY);
-        font.draw(batch, "Quit Game", quitButton.x + 40, quitY);
+        drawCentered(fonts.layout(Fonts.TITLE, "Start Game"), startButton);
+        drawCentered(fonts.layout(Fonts.TITLE, "Quit Game"), quitButton);
         batch.end();
     }
 
+    private void drawMenuBackdrop() {
+        background.draw(batch, hudCamera);
+        fillRect(0, 0, WORLD_WIDTH, WORLD_HEIGHT, MENU_SHADE);
+    }
 
+    private void drawCentered(GlyphLayout label, Rectangle button) {
+        fonts.get(Fonts.TITLE).draw(batch, label,
+            button.x + (button.width - label.width) / 2, button.y + (button.height + label.height) / 2);
+    }
 
-    private void update(float delta) {
-        if (player.isDead() || enemy.isDead()) {
-            gameOver = true;
-            return;
-        }
-
-        handleInput(delta);
-        applyPhysics(delta);
-        handleCollisions();
-
-        player.update(delta);
-        enemy.update(delta, player);
+    private void fillRect(Rectangle rect, Color color) {
+        fillRect(rect.x, rect.y, rect.width, rect.height, color);
+    }
 
-        updateCamera();
+    /** A filled rectangle from the atlas' white texel; the batch must be drawing. */
+    private void fillRect(float x, float y, float width, float height, Color color) {
+        batch.setColor(color);
+        batch.draw(white, x, y, width, height);
+        batch.setColor(Color.WHITE);
     }
 
     private void drawGameOver(float delta) {
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
+        batch.setProjectionMatrix(hudCamera.combined);
         batch.begin();
-        if(player.isDead()){
-            font.draw(batch, "GAME OVER",
-                viewport.getWorldWidth() / 2 - 100,
-                viewport.getWorldHeight() / 2);
-        }else{
-            font.draw(batch, "YOU WIN",
-                viewport.getWorldWidth() / 2 - 100,
-                viewport.getWorldHeight() / 2);
-        }
-
-        font.draw(batch, "Press R to Restart",
-            viewport.getWorldWidth() / 2 - 100,
-            viewport.getWorldHeight() / 2 - 50);
-
-        font.draw(batch, "Press Q to Exit",
-             100,
-            viewport.getWorldHeight() / 2 - 50);
+        GlyphLayout title = fonts.layout(Fonts.TITLE, simulation.isPlayerDead() ? "GAME OVER" : "YOU WIN");
+        fonts.get(Fonts.TITLE).draw(batch, title, WORLD_WIDTH / 2 - title.width / 2, WORLD_HEIGHT / 2 + title.height);
 
-
-        if (Gdx.input.isKeyPressed(Input.Keys.R)) {
-            resetGame();
-        }
-        if (Gdx.input.isKeyJustPressed(Input.Keys.Q)){
-            Gdx.app.exit();
-        }
+        font.draw(batch, fonts.layout(Fonts.UI, "Press R to Restart"), WORLD_WIDTH / 2 - 100, WORLD_HEIGHT / 2 - 50);
+        font.draw(batch, fonts.layout(Fonts.UI, "Press Q to Exit"), 100, WORLD_HEIGHT / 2 - 50);
 
         batch.end();
     }
 
     private void resetGame() {
-        player = new Player(400, FLOOR_HEIGHT, 200, 100);
-        enemy = new Enemy(100, FLOOR_HEIGHT, 100);
-        gameOver = false;
-    }
-    private void handleInput(float delta) {
-        if (Gdx.input.isKeyPressed(Input.Keys.A)) {
-            player.move(-player.speed * delta, 0);
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.D)) {
-            player.move(player.speed * delta, 0);
-        }
-        if (Gdx.input.isButtonJustPressed(Input.Buttons.LEFT)) {
-            player.playerAttackOne();
-        }
-        if (Gdx.input.isKeyJustPressed(Input.Keys.SPACE) && player.isGrounded()) {
-            player.setVerticalVelocity(JUMP_VELOCITY);
-            player.setGrounded(false);
+        simulation.reset();
+        accumulator = 0;
+        startPlaying();
+        if (Gdx.app.getLogLevel() >= Application.LOG_DEBUG) {
+            Gdx.app.debug("Assets", assets.getStats());
         }
     }
 
-    private void applyPhysics(float delta) {
-        if (!player.isGrounded()) {
-            float velocity = player.getVerticalVelocity() + GRAVITY;
-            player.setVerticalVelocity(velocity);
-            player.move(0, velocity);
-
-            if (player.getY() <= FLOOR_HEIGHT) {
-                player.setY(FLOOR_HEIGHT);
-                player.setGrounded(true);
-                player.setVerticalVelocity(0);
-            }
-        }
-    }
-
-    private void handleCollisions() {
-        if (player.getIsAttacking()) {
-            if (!hasPlayerHitInCurrentAttack && player.getWeapon().overlaps(enemy.getBounds())) {
-                int newHealth = Math.max(0, enemy.getHealth() - 30);
-                enemy.setHealth(newHealth);
-                hasPlayerHitInCurrentAttack = true;
-
-                if (newHealth <= 0) {
-                    enemy.setDead(true);
-                }
-            }
-        } else {
-            hasPlayerHitInCurrentAttack = false;
-        }
-
-        if (enemy.isAttacking()) {
-            if (!hasEnemyHitInCurrentAttack && enemy.getAttackHitbox().overlaps(player.getBounds())) {
-                int newHealth = Math.max(0, player.getHealth() - 30);
-                player.setHealth(newHealth);
-                hasEnemyHitInCurrentAttack = true;
-
-                if (newHealth <= 0) {
-                    player.setDead(true);
-                }
-            }
-        } else {
-            hasEnemyHitInCurrentAttack = false;
-        }
-
-        // Optional: Add enemy death condition if needed
-        if (enemy.getHealth() <= 0) {
-            // Handle enemy death logic if required
-        }
-    }
-
-    private void updateCamera() {
-        camera.position.set(player.getX() + 25, viewport.getWorldHeight() / 2, 0);
+    private void updateCamera(float alpha) {
+        camera.position.set(positions.get(simulation.getPlayer()).interpolatedX(alpha) + 25, viewport.getWorldHeight() / 2, 0);
         camera.update();
+        levelView.update(camera);
+        background.update();
     }
 
-    private void draw() {
+    /** Draws the world {@code alpha} of the way from the previous simulation step to the current one. */
+    private void draw(float alpha) {
+        updateCamera(alpha);
+
+        profiler.begin(FrameProfiler.Section.DRAW);
         batch.setProjectionMatrix(camera.combined);
         batch.begin();
-        batch.draw(background, 0, 0, viewport.getWorldWidth() * 2, viewport.getWorldHeight());
-
-        if (player.getIsAttacking()) {
-            float attackWidth = 80 * ATTACK_SPRITE_SCALE;
-            float attackHeight = 43 * ATTACK_SPRITE_SCALE;
-
-            float xOffset = (player.getRightFacing() ? (PLAYER_WIDTH - attackWidth * 3 / 4) / 2 : (PLAYER_WIDTH - attackWidth ));
-            float yOffset = (PLAYER_HEIGHT - attackHeight * 4 / 3  - 1) / 2;
-
-            batch.draw(player.getCurrentTexture(),
-                player.getX() + xOffset,
-                player.getY() + yOffset,
-                attackWidth,
-                attackHeight);
-        } else {
-            batch.draw(player.getCurrentTexture(),
-                player.getX(),
-                player.getY(),
-                PLAYER_WIDTH,
-                PLAYER_HEIGHT);
-        }
-
-        batch.draw(enemy.getCurrentTexture(),
-            enemy.getX(),
-            enemy.getY(),
-            200,
-            200);
+        background.draw(batch, camera);
+        levelView.draw(batch);
+        spriteRenderer.draw(batch, camera, alpha);
+        drawEffects(alpha);
         batch.end();
+        profiler.end(FrameProfiler.Section.DRAW);
 
 //        drawDebugShapes();
 //        drawWeapon();
 //        drawEnemyWeapon();
+        profiler.begin(FrameProfiler.Section.HUD);
         drawHealthBar();
+        profiler.end(FrameProfiler.Section.HUD);
     }
 
     private void drawDebugShapes() {
@@ -735,7 +497,7 @@ public class SekiroGame extends ApplicationAdapter {
         shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
 
         shapeRenderer.setColor(Color.WHITE);
-        Rectangle playerBounds = player.getBounds();
+        Rectangle playerBounds = hitboxes.get(simulation.getPlayer()).bounds;
         shapeRenderer.rect(
             playerBounds.x + playerBounds.width / 2 - 5,
             playerBounds.y,
@@ -744,52 +506,81 @@ public class SekiroGame extends ApplicationAdapter {
         );
 
         shapeRenderer.setColor(Color.RED);
-        Rectangle enemyBounds = enemy.getBounds();
-        shapeRenderer.rect(enemyBounds.x + 50, enemyBounds.y, enemyBounds.width, enemyBounds.height);
+        IntBag enemyIds = enemies.getEntities();
+        for (int i = 0; i < enemyIds.size(); i++) {
+            Rectangle enemyBounds = hitboxes.get(enemyIds.get(i)).bounds;
+            shapeRenderer.rect(enemyBounds.x + 50, enemyBounds.y, enemyBounds.width, enemyBounds.height);
+        }
 
         shapeRenderer.end();
     }
 
-    private void drawHealthBar() {
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+    /** Sparks are white texels turned 45 degrees, so effects stay in the world's batch. */
+    private void drawEffects(float alpha) {
+        IntBag sparkIds = sparks.getEntities();
+        for (int i = 0, n = sparkIds.size(); i < n; i++) {
+            int id = sparkIds.get(i);
+            Position position = positions.get(id);
+            float size = hitSparks.get(id).size * (1 - lifetimes.get(id).progress());
+            batch.draw(white, position.x - size / 2, position.y - size / 2, size / 2, size / 2, size, size, 1, 1, 45);
+        }
 
-        // Player health bar (green at top)
-        shapeRenderer.setColor(Color.GREEN);
-        shapeRenderer.rect(player.x-420, viewport.getWorldHeight() - 20, player.getHealth() * 2, 10);
+        IntBag numberIds = damageNumbers.getEntities();
+        for (int i = 0, n = numberIds.size(); i < n; i++) {
+            int id = numberIds.get(i);
+            Position position = positions.get(id);
+            font.draw(batch, damageLabel(numbers.get(id).amount),
+                position.interpolatedX(alpha), position.interpolatedY(alpha));
+        }
+    }
 
-        // Enemy health bar (red at bottom)
-        shapeRenderer.setColor(Color.RED);
-        shapeRenderer.rect(player.x-230, 10, enemy.getHealth() / 2, 10);
+    // Damage values repeat, so each label is built once instead of every frame.
+    private String damageLabel(int amount) {
+        String label = damageLabels.get(amount);
+        if (label == null) {
+            label = Integer.toString(amount);
+            damageLabels.put(amount, label);
+        }
+        return label;
+    }
 
-        shapeRenderer.end();
+    /** Bars and labels in screen space, drawn from the atlas in one batch. */
+    private void drawHealthBar() {
+        int playerHealth = healths.get(simulation.getPlayer()).current;
+        // Summed over every enemy still alive
+        int enemyHealth = 0;
+        IntBag enemyIds = enemies.getEntities();
+        for (int i = 0; i < enemyIds.size(); i++) {
+            enemyHealth += healths.get(enemyIds.get(i)).current;
+        }
 
-        // Draw health text
-        batch.setProjectionMatrix(camera.combined);
+        batch.setProjectionMatrix(hudCamera.combined);
         batch.begin();
-        font.draw(batch, "Player Health: " + player.getHealth(),
-            player.x - 420, viewport.getWorldHeight() - 30);
-
-        font.draw(batch, "Enemy Health: " + enemy.getHealth() ,
-            player.x - 230 , 40);
+        // Player health bar (green at top), enemy health bar (red at bottom)
+        fillRect(PLAYER_BAR_X, WORLD_HEIGHT - 20, playerHealth * 2, 10, Color.GREEN);
+        fillRect(ENEMY_BAR_X, 10, enemyHealth / 2, 10, Color.RED);
 
+        font.draw(batch, playerHealthLabel.layout(font, playerHealth), PLAYER_BAR_X, WORLD_HEIGHT - 30);
+        font.draw(batch, enemyHealthLabel.layout(font, enemyHealth), ENEMY_BAR_X, 40);
         batch.end();
     }
+
     private void drawWeapon() {
         shapeRenderer.setColor(Color.BLUE);
         shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
 
-        Rectangle weapon = player.getWeapon();
-        float rotation = player.getWeaponRotation();
-        float originX = player.getRightFacing() ? weapon.x : weapon.x + weapon.width ;
-        float originY = player.getRightFacing() ? weapon.y + weapon.height / 3 : weapon.y - 30;
+        Position position = positions.get(simulation.getPlayer());
+        Rectangle weapon = weapons.get(simulation.getPlayer()).hitbox;
+        float rotation = weapons.get(simulation.getPlayer()).rotation;
+        float originX = position.rightFacing ? weapon.x : weapon.x + weapon.width ;
+        float originY = position.rightFacing ? weapon.y + weapon.height / 3 : weapon.y - 30;
 
         shapeRenderer.identity();
         shapeRenderer.translate(originX, originY, 0);
         shapeRenderer.rotate(0, 0, 1, rotation);
         shapeRenderer.translate(-originX, -originY, 0);
             shapeRenderer.rect(
-                player.getRightFacing() ? player.x + weapon.width / 4 : player.x,
+                position.rightFacing ? position.x + weapon.width / 4 : position.x,
                 weapon.y -35,
                 weapon.width,
             weapon.height
@@ -803,22 +594,17 @@ public class SekiroGame extends ApplicationAdapter {
         shapeRenderer.setColor(Color.GREEN);
         shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
 
-        Rectangle weapon = enemy.getAttackHitbox();
-//        float rotation = enemy.getWeaponRotation();
-//        float originX = enemy.getRightFacing() ? weapon.x : weapon.x + weapon.width ;
-//        float originY = enemy.getRightFacing() ? weapon.y + weapon.height / 3 : weapon.y - 30;
-//
-//        shapeRenderer.identity();
-//        shapeRenderer.translate(originX, originY, 0);
-//        shapeRenderer.rotate(0, 0, 1, rotation);
-//        shapeRenderer.translate(-originX, -originY, 0);
-        shapeRenderer.rect(
-            enemy.x + 10,
-            weapon.y + 20 ,
-            weapon.width,
-            weapon.height
-        );
-        shapeRenderer.identity();
+        IntBag enemyIds = enemies.getEntities();
+        for (int i = 0; i < enemyIds.size(); i++) {
+            int enemy = enemyIds.get(i);
+            Rectangle weapon = weapons.get(enemy).hitbox;
+            shapeRenderer.rect(
+                positions.get(enemy).x + 10,
+                weapon.y + 20 ,
+                weapon.width,
+                weapon.height
+            );
+        }
 
         shapeRenderer.end();
     }
@@ -826,17 +612,44 @@ public class SekiroGame extends ApplicationAdapter {
     @Override
     public void resize(int width, int height) {
         viewport.update(width, height);
+        assets.setScreenDensity(viewport.getScreenWidth() / WORLD_WIDTH);
+        menuBackdrop.invalidate();
+    }
+
+    @Override
+    public void resume() {
+        // A lost GL context brings frame buffers back empty.
+        menuBackdrop.invalidate();
     }
 
     @Override
     public void dispose() {
         super.dispose();
+        Controllers.removeListener(controllerCommands);
+        if (allocations.isSupported()) {
+            // Counted from a few seconds into the first round; loading and the menu allocate freely.
+            Gdx.app.log("Allocations", allocations.getBytesPerFrame() + " bytes/frame average, "
+                + allocations.getMaxFrameBytes() + " max over " + allocations.getFrames() + " frames");
+        }
 
+        profiler.dispose();
+        menuBackdrop.dispose();
         batch.dispose();
-        player.dispose();
-        enemy.dispose();
+        if (fonts != null) {
+            fonts.dispose();
+        }
+        if (simulation != null) {
+            if (replay != null) {
+                replay.setChecksum(simulation.checksum());
+                replay.write(Gdx.files.local(replayFile));
+                Gdx.app.log("Replay", replay.getTicks() + " ticks written to " + replayFile);
+            }
+            simulation.dispose();
+            levelView.dispose();
+            assets.releaseAtlas();
+        }
         background.dispose();
+        assets.dispose();
         shapeRenderer.dispose();
-        menuShapeRenderer.dispose();
     }
 }
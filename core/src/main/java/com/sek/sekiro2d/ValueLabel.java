@@ -0,0 +1,31 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+
+/**
+ * HUD text of the form {@code prefix + value}. The text and its layout are only rebuilt when the
+ * value changes, so drawing an unchanged label costs no allocation and no glyph layout.
+ */
+class ValueLabel {
+    private final String prefix;
+    private final StringBuilder text = new StringBuilder();
+    private final GlyphLayout layout = new GlyphLayout();
+    private boolean valid;
+    private int value;
+
+    ValueLabel(String prefix) {
+        this.prefix = prefix;
+    }
+
+    GlyphLayout layout(BitmapFont font, int value) {
+        if (!valid || this.value != value) {
+            this.value = value;
+            valid = true;
+            text.setLength(0);
+            text.append(prefix).append(value);
+            layout.setText(font, text);
+        }
+        return layout;
+    }
+}
@@ -0,0 +1,186 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed set of worker threads that runs one data-parallel job at a time. {@link #run(Job, int, int)}
+ * splits the index range {@code [0, count)} into chunks; the workers and the calling thread claim
+ * chunks until none are left, and the call returns once every chunk has finished. Ranges too small
+ * to be worth waking the workers for, or a pool with no workers, run inline on the caller.
+ * <br>
+ * Jobs must only write state owned by the indices they are given; anything shared has to be merged
+ * by the caller afterwards. Nothing is allocated per call.
+ */
+public class WorkerPool implements Disposable {
+    /** Work on the indices {@code [from, to)}. */
+    public interface Job {
+        void run(int from, int to);
+    }
+
+    // More chunks than threads, so a thread that gets a slow chunk doesn't hold up the rest.
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final Object lock = new Object();
+    // The generation in the high half, the next unclaimed chunk in the low half. A thread only claims
+    // chunks of the generation it read, so one still finishing an old job can't take the new job's.
+    private final AtomicLong nextChunk = new AtomicLong();
+    private final AtomicInteger pendingChunks = new AtomicInteger();
+    private Thread[] workers = new Thread[0];
+    private boolean alive;
+
+    // Written under lock before a generation starts, and read under lock by the workers joining it.
+    private int generation;
+    private Job job;
+    private int count, chunkSize, chunks;
+    private volatile Thread caller;
+    private volatile Throwable failure;
+
+    public WorkerPool(int threads) {
+        setThreads(threads);
+    }
+
+    /** One worker per core besides the caller's. */
+    public static int defaultThreads() {
+        return Runtime.getRuntime().availableProcessors() - 1;
+    }
+
+    /** Replaces the workers with {@code threads} new ones; 0 runs every job on the caller. */
+    public void setThreads(int threads) {
+        stop();
+        threads = Math.max(0, threads);
+        alive = true;
+        workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::work, "simulation-worker-" + i);
+            worker.setDaemon(true);
+            workers[i] = worker;
+            worker.start();
+        }
+    }
+
+    public int getThreads() {
+        return workers.length;
+    }
+
+    /**
+     * Runs {@code job} over {@code [0, count)} and waits for it to finish.
+     *
+     * @param grain the smallest range worth handing to another thread.
+     */
+    public void run(Job job, int count, int grain) {
+        if (count <= 0) return;
+        int threads = workers.length + 1;
+        if (threads == 1 || count < grain * 2) {
+            job.run(0, count);
+            return;
+        }
+
+        int size = Math.max(grain, (count + threads * CHUNKS_PER_THREAD - 1) / (threads * CHUNKS_PER_THREAD));
+        int chunks = (count + size - 1) / size;
+        int generation;
+        synchronized (lock) {
+            generation = ++this.generation;
+            this.job = job;
+            this.count = count;
+            this.chunkSize = size;
+            this.chunks = chunks;
+            caller = Thread.currentThread();
+            // Pending before the chunks can be claimed, so no chunk finishes before it is counted.
+            pendingChunks.set(chunks);
+            nextChunk.set((long) generation << 32);
+            lock.notifyAll();
+        }
+
+        runChunks(job, generation, count, size, chunks);
+        // Every chunk is claimed; wait for the ones other threads are still running.
+        while (pendingChunks.get() > 0) {
+            LockSupport.park(this);
+        }
+        synchronized (lock) {
+            this.job = null;
+        }
+
+        Throwable error = failure;
+        if (error != null) {
+            failure = null;
+            throw new GdxRuntimeException("Worker job failed", error);
+        }
+    }
+
+    private void work() {
+        int seen = 0;
+        while (true) {
+            Job job;
+            int count, size, chunks;
+            synchronized (lock) {
+                while (alive && generation == seen) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!alive) return;
+                seen = generation;
+                job = this.job;
+                count = this.count;
+                size = chunkSize;
+                chunks = this.chunks;
+            }
+            // The job may already be done, and cleared, by the time a worker wakes; then nothing is claimed.
+            runChunks(job, seen, count, size, chunks);
+        }
+    }
+
+    private void runChunks(Job job, int generation, int count, int size, int chunks) {
+        int chunk;
+        while ((chunk = claim(generation, chunks)) >= 0) {
+            int from = chunk * size;
+            try {
+                job.run(from, Math.min(count, from + size));
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                if (pendingChunks.decrementAndGet() == 0) {
+                    LockSupport.unpark(caller);
+                }
+            }
+        }
+    }
+
+    /** The next chunk of {@code generation}, or -1 once it has none left or a later one started. */
+    private int claim(int generation, int chunks) {
+        while (true) {
+            long next = nextChunk.get();
+            int chunk = (int) next;
+            if ((int) (next >>> 32) != generation || chunk >= chunks) return -1;
+            if (nextChunk.compareAndSet(next, next + 1)) return chunk;
+        }
+    }
+
+    private void stop() {
+        synchronized (lock) {
+            alive = false;
+            lock.notifyAll();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers = new Thread[0];
+    }
+
+    @Override
+    public void dispose() {
+        stop();
+    }
+}
@@ -0,0 +1,111 @@
+package com.sek.sekiro2d.ai;
+
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.branch.Selector;
+import com.badlogic.gdx.ai.btree.branch.Sequence;
+import com.sek.sekiro2d.component.EnemyAi;
+
+/**
+ * The enemy behavior tree, built in code so it needs no files or reflection:
+ * <pre>
+ * selector
+ *   sequence: swinging?, hold
+ *   sequence: in attack range?, cooldown ready?, roll attack
+ *   sequence: beyond stop distance?, chase
+ *   hold
+ * </pre>
+ * Every leaf finishes in the step it runs, so each {@link BehaviorTree#step()} is one full decision.
+ */
+final class EnemyBehavior {
+    private EnemyBehavior() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static BehaviorTree<EnemyBrain> create(EnemyBrain brain) {
+        Selector<EnemyBrain> root = new Selector<>(
+            new Sequence<>(new Swinging(), new Hold()),
+            new Sequence<>(new InAttackRange(), new CooldownReady(), new RollAttack()),
+            new Sequence<>(new BeyondStopDistance(), new Chase()),
+            new Hold());
+        return new BehaviorTree<>(root, brain);
+    }
+
+    /** A leaf whose outcome is decided entirely by {@link #check(EnemyBrain)}. */
+    private abstract static class Step extends LeafTask<EnemyBrain> {
+        abstract boolean check(EnemyBrain brain);
+
+        @Override
+        public Status execute() {
+            return check(getObject()) ? Status.SUCCEEDED : Status.FAILED;
+        }
+
+        @Override
+        protected Task<EnemyBrain> copyTo(Task<EnemyBrain> task) {
+            return task;
+        }
+    }
+
+    static class Swinging extends Step {
+        @Override
+        boolean check(EnemyBrain brain) {
+            return brain.weapon.attacking;
+        }
+    }
+
+    static class InAttackRange extends Step {
+        @Override
+        boolean check(EnemyBrain brain) {
+            float dx = brain.targetX - brain.position.x;
+            float dy = brain.targetY - brain.position.y;
+            float range = brain.ai.attackRange;
+            return dx * dx + dy * dy <= range * range;
+        }
+    }
+
+    static class CooldownReady extends Step {
+        @Override
+        boolean check(EnemyBrain brain) {
+            return brain.weapon.cooldownTimer <= 0;
+        }
+    }
+
+    /**
+     * Swings at {@link EnemyAi#attackRate} on average, whatever the think interval: the chance
+     * covers all the time since the last think. StrictMath, so every platform rolls alike.
+     */
+    static class RollAttack extends Step {
+        @Override
+        boolean check(EnemyBrain brain) {
+            float chance = 1 - (float) StrictMath.exp(-brain.ai.attackRate * brain.sinceThink);
+            if (brain.random.nextFloat() >= chance) return false;
+            brain.weapon.start();
+            brain.intent = EnemyBrain.Intent.HOLD;
+            return true;
+        }
+    }
+
+    static class BeyondStopDistance extends Step {
+        @Override
+        boolean check(EnemyBrain brain) {
+            return Math.abs(brain.targetX - brain.position.x) > brain.ai.stopDistance;
+        }
+    }
+
+    static class Chase extends Step {
+        @Override
+        boolean check(EnemyBrain brain) {
+            brain.intent = EnemyBrain.Intent.CHASE;
+            return true;
+        }
+    }
+
+    static class Hold extends Step {
+        @Override
+        boolean check(EnemyBrain brain) {
+            brain.intent = EnemyBrain.Intent.HOLD;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.sek.sekiro2d.ai;
+
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.steer.Steerable;
+import com.badlogic.gdx.ai.steer.SteeringAcceleration;
+import com.badlogic.gdx.ai.steer.behaviors.Arrive;
+import com.badlogic.gdx.ai.utils.Location;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.sek.sekiro2d.component.EnemyAi;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Velocity;
+import com.sek.sekiro2d.component.Weapon;
+
+/**
+ * Blackboard and steering body of one enemy. {@link #think(float, float)} runs the behavior tree,
+ * which decides whether the enemy chases, holds or swings; {@link #steer(float, float, float)} runs
+ * every step and turns the last decision into velocity towards wherever the target is now.
+ * <br>
+ * Brains are pooled with their {@link EnemyAi} and re-bound to the entity's components on spawn.
+ * A brain only writes its own enemy's components and owns its random generator, so different brains
+ * can think and steer on different threads.
+ */
+public class EnemyBrain implements Steerable<Vector2> {
+    // Seconds to reach full speed from standstill.
+    private static final float RAMP_TIME = 0.1f;
+
+    enum Intent { HOLD, CHASE }
+
+    private final BehaviorTree<EnemyBrain> tree;
+    private final Arrive<Vector2> arrive;
+    private final SteeringAcceleration<Vector2> steering = new SteeringAcceleration<>(new Vector2());
+    private final Vector2 steeringPosition = new Vector2();
+    private final Vector2 steeringVelocity = new Vector2();
+    private final Point target = new Point();
+    final RandomXS128 random = new RandomXS128();
+    private float maxLinearSpeed, maxLinearAcceleration;
+    private float zeroLinearSpeedThreshold = 0.001f;
+    private boolean tagged;
+
+    EnemyAi ai;
+    Position position;
+    Velocity velocity;
+    Weapon weapon;
+    float targetX, targetY;
+    Intent intent = Intent.HOLD;
+    // Seconds since the last think; how often that is depends on how many enemies share the budget.
+    float sinceThink;
+
+    public EnemyBrain() {
+        tree = EnemyBehavior.create(this);
+        arrive = new Arrive<>(this, target);
+    }
+
+    /** @param seed for this enemy's own rolls; drawn in spawn order, so a session seed reproduces it. */
+    public void bind(EnemyAi ai, Position position, Velocity velocity, Weapon weapon, long seed) {
+        this.ai = ai;
+        this.position = position;
+        this.velocity = velocity;
+        this.weapon = weapon;
+        random.setSeed(seed);
+        intent = Intent.HOLD;
+        sinceThink = 0;
+        maxLinearSpeed = velocity.speed;
+        maxLinearAcceleration = velocity.speed / RAMP_TIME;
+        arrive.setArrivalTolerance(ai.stopDistance)
+            .setDecelerationRadius(ai.stopDistance * 2)
+            .setTimeToTarget(RAMP_TIME);
+    }
+
+    /** Re-evaluates the behavior tree against the target's current position. */
+    public void think(float targetX, float targetY) {
+        this.targetX = targetX;
+        this.targetY = targetY;
+        tree.step();
+        sinceThink = 0;
+    }
+
+    /** Moves according to the last decision; the target may have moved since. */
+    public void steer(float targetX, float targetY, float delta) {
+        sinceThink += delta;
+        if (weapon.attacking || intent == Intent.HOLD) {
+            velocity.x = 0;
+            return;
+        }
+        // Enemies walk along the floor, so only the horizontal part of the pursuit matters.
+        steeringPosition.set(position.x, position.y);
+        steeringVelocity.set(velocity.x, 0);
+        target.position.set(targetX, position.y);
+        arrive.calculateSteering(steering);
+        if (steering.isZero()) {
+            velocity.x = 0;
+            return;
+        }
+        velocity.x = MathUtils.clamp(velocity.x + steering.linear.x * delta, -velocity.speed, velocity.speed);
+        position.rightFacing = targetX > position.x;
+    }
+
+    @Override public Vector2 getPosition() { return steeringPosition; }
+    @Override public Vector2 getLinearVelocity() { return steeringVelocity; }
+    @Override public float getOrientation() { return 0; }
+    @Override public void setOrientation(float orientation) { }
+    @Override public float getAngularVelocity() { return 0; }
+    @Override public float getBoundingRadius() { return 0; }
+    @Override public boolean isTagged() { return tagged; }
+    @Override public void setTagged(boolean tagged) { this.tagged = tagged; }
+    @Override public float getZeroLinearSpeedThreshold() { return zeroLinearSpeedThreshold; }
+    @Override public void setZeroLinearSpeedThreshold(float value) { zeroLinearSpeedThreshold = value; }
+    @Override public float getMaxLinearSpeed() { return maxLinearSpeed; }
+    @Override public void setMaxLinearSpeed(float maxLinearSpeed) { this.maxLinearSpeed = maxLinearSpeed; }
+    @Override public float getMaxLinearAcceleration() { return maxLinearAcceleration; }
+    @Override public void setMaxLinearAcceleration(float value) { maxLinearAcceleration = value; }
+    @Override public float getMaxAngularSpeed() { return 0; }
+    @Override public void setMaxAngularSpeed(float maxAngularSpeed) { }
+    @Override public float getMaxAngularAcceleration() { return 0; }
+    @Override public void setMaxAngularAcceleration(float maxAngularAcceleration) { }
+    @Override public float vectorToAngle(Vector2 vector) { return vectorAngle(vector); }
+    @Override public Vector2 angleToVector(Vector2 out, float angle) { return angleVector(out, angle); }
+    @Override public Location<Vector2> newLocation() { return new Point(); }
+
+    private static float vectorAngle(Vector2 vector) {
+        return (float) Math.atan2(-vector.x, vector.y);
+    }
+
+    private static Vector2 angleVector(Vector2 out, float angle) {
+        out.x = -(float) Math.sin(angle);
+        out.y = (float) Math.cos(angle);
+        return out;
+    }
+
+    /** A bare position to steer towards. */
+    static class Point implements Location<Vector2> {
+        final Vector2 position = new Vector2();
+        private float orientation;
+
+        @Override public Vector2 getPosition() { return position; }
+        @Override public float getOrientation() { return orientation; }
+        @Override public void setOrientation(float orientation) { this.orientation = orientation; }
+        @Override public float vectorToAngle(Vector2 vector) { return vectorAngle(vector); }
+        @Override public Vector2 angleToVector(Vector2 out, float angle) { return angleVector(out, angle); }
+        @Override public Location<Vector2> newLocation() { return new Point(); }
+    }
+}
@@ -0,0 +1,42 @@
+package com.sek.sekiro2d.ai;
+
+/**
+ * Spreads decisions over steps, like gdx-ai's {@code LoadBalancingScheduler}: each step hands out
+ * the next slice of entities in turn, sized so that everyone thinks every {@code interval} steps but
+ * never more than {@code budget} per step. With many entities each one thinks less often instead of
+ * the step getting slower.
+ * <br>
+ * The budget is a count rather than milliseconds so the same session always makes the same
+ * decisions on the same steps, which replays rely on.
+ */
+public class ThinkScheduler {
+    private final int interval;
+    private final int budget;
+    private int count;
+    private int cursor;
+    private int first;
+
+    public ThinkScheduler(int interval, int budget) {
+        this.interval = Math.max(1, interval);
+        this.budget = Math.max(1, budget);
+    }
+
+    /** Starts a step over {@code count} entities and returns how many of them think in it. */
+    public int begin(int count) {
+        this.count = count;
+        if (cursor >= count) cursor = 0;
+        int slice = Math.min(budget, (count + interval - 1) / interval);
+        first = cursor;
+        cursor = count == 0 ? 0 : (cursor + slice) % count;
+        return slice;
+    }
+
+    /**
+     * Index of the {@code k}th thinker of this step, in the list {@link #begin(int)} was given the
+     * size of. Only reads, so slices can be handed to several threads.
+     */
+    public int index(int k) {
+        int index = first + k;
+        return index >= count ? index - count : index;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+
+/** Damage dealt by a hit, drawn as text rising from where it landed. */
+public class DamageNumber extends PooledComponent {
+    public int amount;
+
+    @Override
+    protected void reset() {
+        amount = 0;
+    }
+}
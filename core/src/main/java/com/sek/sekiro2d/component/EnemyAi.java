@@ -0,0 +1,23 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+import com.sek.sekiro2d.ai.EnemyBrain;
+
+public class EnemyAi extends PooledComponent {
+    // Range within which the enemy can attack
+    public float attackRange = 120f;
+    // Swings started per second of game time while in range and off cooldown, on average. The old
+    // loop rolled 0.3 a frame at 60 FPS: -ln(1 - 0.3) * 60 / GameSimulation.TIME_SCALE.
+    public float attackRate = 30.6f;
+    // Stops walking once this close to the player
+    public float stopDistance = 50f;
+    // Kept across reuse; EnemyAiSystem re-binds it to the new entity's components.
+    public EnemyBrain brain;
+
+    @Override
+    protected void reset() {
+        attackRange = 120f;
+        attackRate = 30.6f;
+        stopDistance = 50f;
+    }
+}
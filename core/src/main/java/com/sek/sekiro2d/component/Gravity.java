@@ -0,0 +1,13 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+
+/** Marks an entity that falls until it lands on the floor or a platform. */
+public class Gravity extends PooledComponent {
+    public boolean grounded = true;
+
+    @Override
+    protected void reset() {
+        grounded = true;
+    }
+}
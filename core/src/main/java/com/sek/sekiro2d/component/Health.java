@@ -0,0 +1,20 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+
+public class Health extends PooledComponent {
+    public int current;
+    public int max;
+    public boolean dead;
+
+    public void set(int health) {
+        current = max = health;
+        dead = false;
+    }
+
+    @Override
+    protected void reset() {
+        current = max = 0;
+        dead = false;
+    }
+}
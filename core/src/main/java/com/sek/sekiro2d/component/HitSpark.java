@@ -0,0 +1,13 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+
+/** Flash drawn where a weapon connected; shrinks from {@code size} to nothing over its lifetime. */
+public class HitSpark extends PooledComponent {
+    public float size;
+
+    @Override
+    protected void reset() {
+        size = 0;
+    }
+}
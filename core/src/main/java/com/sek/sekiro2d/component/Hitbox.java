@@ -0,0 +1,14 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+import com.badlogic.gdx.math.Rectangle;
+
+/** The area that can be hit; kept at the entity's {@link Position} by the movement system. */
+public class Hitbox extends PooledComponent {
+    public final Rectangle bounds = new Rectangle();
+
+    @Override
+    protected void reset() {
+        bounds.set(0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,19 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+
+/** Game time left before the entity is deleted; used by short-lived effects. */
+public class Lifetime extends PooledComponent {
+    public float remaining;
+    public float duration;
+
+    /** Fraction of the lifetime already used, in [0, 1]. */
+    public float progress() {
+        return duration > 0 ? 1 - remaining / duration : 1;
+    }
+
+    @Override
+    protected void reset() {
+        remaining = duration = 0;
+    }
+}
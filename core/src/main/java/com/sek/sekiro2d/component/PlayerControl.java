@@ -0,0 +1,19 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+
+/** Intent for the player entity, filled from input once per rendered frame and consumed by the simulation. */
+public class PlayerControl extends PooledComponent {
+    public int moveAxis;
+    public boolean jumpRequested;
+    public boolean attackRequested;
+    public boolean healRequested;
+    public float healCooldown;
+
+    @Override
+    protected void reset() {
+        moveAxis = 0;
+        jumpRequested = attackRequested = healRequested = false;
+        healCooldown = 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+
+/** World position of an entity's bottom-left corner, plus where it was before the current step. */
+public class Position extends PooledComponent {
+    public float x, y;
+    public float previousX, previousY;
+    public boolean rightFacing = true;
+
+    public void set(float x, float y) {
+        this.x = previousX = x;
+        this.y = previousY = y;
+    }
+
+    /** Position between the last two simulation steps, {@code alpha} in [0, 1]. */
+    public float interpolatedX(float alpha) { return previousX + (x - previousX) * alpha; }
+    public float interpolatedY(float alpha) { return previousY + (y - previousY) * alpha; }
+
+    @Override
+    protected void reset() {
+        x = y = previousX = previousY = 0;
+        rightFacing = true;
+    }
+}
@@ -0,0 +1,28 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+import com.sek.sekiro2d.AnimationState;
+
+/**
+ * How an entity is drawn. Clip ids index into the entity type's shared AnimationSet; -1 means the
+ * entity has no such clip and falls back to walking. One clip serves both facings; the renderer
+ * mirrors directional clips for the other one.
+ */
+public class Sprite extends PooledComponent {
+    public AnimationState animation;
+    public float width, height;
+    // Attack frames are wider than the rest; when set they are drawn at their own size times this.
+    public float attackScale;
+
+    public int idle = -1;
+    public int walk = -1;
+    public int attack = -1;
+    public int death = -1;
+
+    // The playback state is kept across reuse and re-pointed by the factory, so respawns don't allocate.
+    @Override
+    protected void reset() {
+        width = height = attackScale = 0;
+        idle = walk = attack = death = -1;
+    }
+}
@@ -0,0 +1,14 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+
+/** Units per second of game time; {@code speed} is how fast the entity walks. */
+public class Velocity extends PooledComponent {
+    public float x, y;
+    public float speed;
+
+    @Override
+    protected void reset() {
+        x = y = speed = 0;
+    }
+}
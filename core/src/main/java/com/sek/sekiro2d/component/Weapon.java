@@ -0,0 +1,42 @@
+package com.sek.sekiro2d.component;
+
+import com.artemis.PooledComponent;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * A melee swing. While {@link #attacking}, {@link #hitbox} sits beside the owner on the side it
+ * faces and can damage each opposing entity once per swing.
+ */
+public class Weapon extends PooledComponent {
+    public final Rectangle hitbox = new Rectangle();
+    // Hitbox placement relative to the owner's position for each facing.
+    public float offsetRightX, offsetLeftX, offsetY;
+    public float duration;
+    public float cooldown;
+    public int damage;
+
+    public boolean attacking;
+    public boolean hasHit;
+    public float timer;
+    public float cooldownTimer;
+    public float rotation;
+
+    /** Begins a swing unless one is already running. */
+    public void start() {
+        if (!attacking) {
+            attacking = true;
+            hasHit = false;
+            timer = 0;
+        }
+    }
+
+    @Override
+    protected void reset() {
+        hitbox.set(0, 0, 0, 0);
+        offsetRightX = offsetLeftX = offsetY = 0;
+        duration = cooldown = 0;
+        damage = 0;
+        attacking = hasHit = false;
+        timer = cooldownTimer = rotation = 0;
+    }
+}
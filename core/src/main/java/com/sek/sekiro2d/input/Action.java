@@ -0,0 +1,19 @@
+package com.sek.sekiro2d.input;
+
+/** What a key, button or script line asks for, independent of the device it came from. */
+public enum Action {
+    MOVE_LEFT,
+    MOVE_RIGHT,
+    JUMP,
+    ATTACK,
+    HEAL,
+    RESTART,
+    QUIT;
+
+    private static final Action[] VALUES = values();
+
+    /** Like {@code values()[ordinal]} without copying the array. */
+    public static Action of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
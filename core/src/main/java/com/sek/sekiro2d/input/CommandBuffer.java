@@ -0,0 +1,80 @@
+package com.sek.sekiro2d.input;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Ring buffer of timestamped action presses and releases. Input sources {@link #record} events as
+ * they arrive; the game drains them once per simulation step, so presses that start and end between
+ * two frames still reach the simulation. When full, the oldest event is overwritten and counted in
+ * {@link #getDropped()}. Never allocates after construction; not thread-safe.
+ */
+public class CommandBuffer {
+    private final int[] actions;
+    private final boolean[] pressed;
+    private final long[] times;
+    private final int mask;
+    private int head;
+    private int size;
+    private long dropped;
+
+    /** @param capacity rounded up to a power of two. */
+    public CommandBuffer(int capacity) {
+        int length = MathUtils.nextPowerOfTwo(Math.max(2, capacity));
+        actions = new int[length];
+        pressed = new boolean[length];
+        times = new long[length];
+        mask = length - 1;
+    }
+
+    /** @param time nanoseconds on the {@link com.badlogic.gdx.utils.TimeUtils#nanoTime()} clock. */
+    public void record(Action action, boolean pressed, long time) {
+        if (size == actions.length) {
+            head = (head + 1) & mask;
+            size--;
+            dropped++;
+        }
+        int tail = (head + size) & mask;
+        actions[tail] = action.ordinal();
+        this.pressed[tail] = pressed;
+        times[tail] = time;
+        size++;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Time of the oldest event; only valid when not empty. */
+    public long peekTime() {
+        return times[head];
+    }
+
+    public Action peekAction() {
+        return Action.of(actions[head]);
+    }
+
+    public boolean peekPressed() {
+        return pressed[head];
+    }
+
+    /** Drops the oldest event. */
+    public void pop() {
+        if (size == 0) return;
+        head = (head + 1) & mask;
+        size--;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /** Events overwritten because the buffer was full. */
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,76 @@
+package com.sek.sekiro2d.input;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.controllers.Controller;
+import com.badlogic.gdx.controllers.ControllerAdapter;
+import com.badlogic.gdx.controllers.ControllerMapping;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Records gamepad input into a {@link CommandBuffer} with the controller's standard mapping: the
+ * left stick or d-pad moves, A jumps, X attacks, Y heals, Start restarts and Back quits. The stick
+ * only produces events when it crosses the dead zone, so it behaves like a pair of keys.
+ */
+public class ControllerCommands extends ControllerAdapter {
+    private static final float DEAD_ZONE = 0.5f;
+
+    private final CommandBuffer buffer;
+    // -1, 0 or 1: which way the stick currently holds.
+    private int stickDirection;
+
+    public ControllerCommands(CommandBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public boolean buttonDown(Controller controller, int buttonCode) {
+        return record(action(controller.getMapping(), buttonCode), true);
+    }
+
+    @Override
+    public boolean buttonUp(Controller controller, int buttonCode) {
+        return record(action(controller.getMapping(), buttonCode), false);
+    }
+
+    @Override
+    public boolean axisMoved(Controller controller, int axisCode, float value) {
+        if (axisCode != controller.getMapping().axisLeftX) return false;
+        int direction = value <= -DEAD_ZONE ? -1 : value >= DEAD_ZONE ? 1 : 0;
+        if (direction == stickDirection) return false;
+        long time = TimeUtils.nanoTime();
+        if (stickDirection != 0) {
+            buffer.record(stickDirection < 0 ? Action.MOVE_LEFT : Action.MOVE_RIGHT, false, time);
+        }
+        if (direction != 0) {
+            buffer.record(direction < 0 ? Action.MOVE_LEFT : Action.MOVE_RIGHT, true, time);
+        }
+        stickDirection = direction;
+        Gdx.graphics.requestRendering();
+        return true;
+    }
+
+    @Override
+    public void disconnected(Controller controller) {
+        // Release anything the stick held so the player doesn't keep walking.
+        axisMoved(controller, controller.getMapping().axisLeftX, 0);
+    }
+
+    private static Action action(ControllerMapping mapping, int buttonCode) {
+        if (buttonCode == mapping.buttonDpadLeft) return Action.MOVE_LEFT;
+        if (buttonCode == mapping.buttonDpadRight) return Action.MOVE_RIGHT;
+        if (buttonCode == mapping.buttonA) return Action.JUMP;
+        if (buttonCode == mapping.buttonX) return Action.ATTACK;
+        if (buttonCode == mapping.buttonY) return Action.HEAL;
+        if (buttonCode == mapping.buttonStart) return Action.RESTART;
+        if (buttonCode == mapping.buttonBack) return Action.QUIT;
+        return null;
+    }
+
+    private boolean record(Action action, boolean pressed) {
+        if (action == null) return false;
+        buffer.record(action, pressed, TimeUtils.nanoTime());
+        // Unlike keys and the mouse, gamepads don't wake a window that only renders on input.
+        Gdx.graphics.requestRendering();
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+package com.sek.sekiro2d.input;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Records key and mouse button events into a {@link CommandBuffer}. Set it as the input processor;
+ * any {@link Input} that delivers events works, including a scripted one. A key may drive several
+ * actions, e.g. R heals in a fight and restarts on the game over screen.
+ */
+public class KeyboardCommands extends InputAdapter {
+    private final CommandBuffer buffer;
+    private final IntMap<Action[]> keys = new IntMap<>();
+    private final IntMap<Action[]> buttons = new IntMap<>();
+
+    /** Uses the game's default bindings. */
+    public KeyboardCommands(CommandBuffer buffer) {
+        this.buffer = buffer;
+        bindKey(Input.Keys.A, Action.MOVE_LEFT);
+        bindKey(Input.Keys.D, Action.MOVE_RIGHT);
+        bindKey(Input.Keys.SPACE, Action.JUMP);
+        bindKey(Input.Keys.R, Action.HEAL, Action.RESTART);
+        bindKey(Input.Keys.Q, Action.QUIT);
+        bindButton(Input.Buttons.LEFT, Action.ATTACK);
+    }
+
+    public void bindKey(int keycode, Action... actions) {
+        keys.put(keycode, actions);
+    }
+
+    public void bindButton(int button, Action... actions) {
+        buttons.put(button, actions);
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        return record(keys.get(keycode), true);
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        return record(keys.get(keycode), false);
+    }
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        return record(buttons.get(button), true);
+    }
+
+    @Override
+    public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        return record(buttons.get(button), false);
+    }
+
+    private boolean record(Action[] actions, boolean pressed) {
+        if (actions == null) return false;
+        long time = TimeUtils.nanoTime();
+        for (Action action : actions) {
+            buffer.record(action, pressed, time);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.sek.sekiro2d.input;
+
+import com.sek.sekiro2d.component.PlayerControl;
+
+/**
+ * Turns buffered commands into the player's {@link PlayerControl}. Movement and healing follow
+ * whether their action is held; jump and attack are latched on press until a step consumes them.
+ * Actions that are not about the player, like restart, are drained and ignored here.
+ */
+public class PlayerCommands {
+    private boolean left, right, heal;
+
+    /** Applies and removes every event recorded at or before {@code time}. */
+    public void apply(CommandBuffer buffer, long time, PlayerControl control) {
+        while (!buffer.isEmpty() && buffer.peekTime() <= time) {
+            boolean pressed = buffer.peekPressed();
+            switch (buffer.peekAction()) {
+                case MOVE_LEFT:
+                    left = pressed;
+                    break;
+                case MOVE_RIGHT:
+                    right = pressed;
+                    break;
+                case HEAL:
+                    heal = pressed;
+                    break;
+                case JUMP:
+                    if (pressed) control.jumpRequested = true;
+                    break;
+                case ATTACK:
+                    if (pressed) control.attackRequested = true;
+                    break;
+                default:
+                    break;
+            }
+            buffer.pop();
+        }
+        control.moveAxis = (right ? 1 : 0) - (left ? 1 : 0);
+        if (heal) {
+            control.healRequested = true;
+        }
+    }
+
+    /** Forgets held actions, e.g. when a new round starts. */
+    public void reset() {
+        left = right = heal = false;
+    }
+}
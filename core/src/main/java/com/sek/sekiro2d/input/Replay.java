@@ -0,0 +1,179 @@
+package com.sek.sekiro2d.input;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.sek.sekiro2d.component.PlayerControl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The player's intent for every simulated tick of a session, plus the seed, enemy count and level
+ * the session started with. A {@code GameSimulation} built from the same seed, enemy count and level
+ * and fed these ticks, restarting whenever a round ends, plays the session again exactly.
+ * <br>
+ * Files hold a header followed by run-length encoded tick masks, so long stretches of holding one
+ * direction cost a few bytes: {@code int magic, byte version, long seed, int enemies, utf level,
+ * int checksum, long ticks}, then {@code byte mask, varint run} pairs until {@code ticks} are covered.
+ * The level is the internal path of its directory, or empty for none; version 1 files have no level.
+ */
+public class Replay {
+    private static final int MAGIC = 0x534b5250; // "SKRP"
+    private static final int VERSION = 2;
+
+    private static final int LEFT = 1;
+    private static final int RIGHT = 1 << 1;
+    private static final int JUMP = 1 << 2;
+    private static final int ATTACK = 1 << 3;
+    private static final int HEAL = 1 << 4;
+
+    private final long seed;
+    private final int enemyCount;
+    private final String level;
+    private final ByteArray ticks;
+    private int checksum;
+
+    public Replay(long seed, int enemyCount) {
+        this(seed, enemyCount, null);
+    }
+
+    /** @param level internal path of the level directory the session is played on, or null for none. */
+    public Replay(long seed, int enemyCount, String level) {
+        this(seed, enemyCount, level, new ByteArray(1024));
+    }
+
+    private Replay(long seed, int enemyCount, String level, ByteArray ticks) {
+        this.seed = seed;
+        this.enemyCount = enemyCount;
+        this.level = level;
+        this.ticks = ticks;
+    }
+
+    /** Appends the intent the next tick runs with. */
+    public void record(PlayerControl control) {
+        int mask = 0;
+        if (control.moveAxis < 0) mask |= LEFT;
+        if (control.moveAxis > 0) mask |= RIGHT;
+        if (control.jumpRequested) mask |= JUMP;
+        if (control.attackRequested) mask |= ATTACK;
+        if (control.healRequested) mask |= HEAL;
+        ticks.add((byte) mask);
+    }
+
+    /** Overwrites {@code control} with the intent recorded for {@code tick}. */
+    public void play(int tick, PlayerControl control) {
+        int mask = ticks.get(tick);
+        control.moveAxis = ((mask & RIGHT) != 0 ? 1 : 0) - ((mask & LEFT) != 0 ? 1 : 0);
+        control.jumpRequested = (mask & JUMP) != 0;
+        control.attackRequested = (mask & ATTACK) != 0;
+        control.healRequested = (mask & HEAL) != 0;
+    }
+
+    public int getTicks() {
+        return ticks.size;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    /** Internal path of the level directory, or null if the session had none. */
+    public String getLevel() {
+        return level;
+    }
+
+    /** Simulation state after the last tick, so a playback can tell whether it diverged. */
+    public int getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(int checksum) {
+        this.checksum = checksum;
+    }
+
+    public void write(FileHandle file) {
+        DataOutputStream out = new DataOutputStream(file.write(false, 8192));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            out.writeInt(enemyCount);
+            out.writeUTF(level != null ? level : "");
+            out.writeInt(checksum);
+            out.writeLong(ticks.size);
+            byte[] masks = ticks.items;
+            for (int i = 0, n = ticks.size; i < n; ) {
+                int start = i;
+                while (i < n && masks[i] == masks[start]) i++;
+                out.writeByte(masks[start]);
+                writeVarInt(out, i - start);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing replay: " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+    public static Replay read(FileHandle file) {
+        DataInputStream in = new DataInputStream(file.read(8192));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new GdxRuntimeException("Not a replay: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) {
+                throw new GdxRuntimeException("Unsupported replay version " + version + ": " + file);
+            }
+            long seed = in.readLong();
+            int enemyCount = in.readInt();
+            String level = version >= 2 ? in.readUTF() : "";
+            int checksum = in.readInt();
+            long count = in.readLong();
+            if (count < 0 || count > Integer.MAX_VALUE) {
+                throw new GdxRuntimeException("Corrupt replay tick count " + count + ": " + file);
+            }
+            ByteArray ticks = new ByteArray((int) Math.max(count, 1));
+            while (ticks.size < count) {
+                byte mask = in.readByte();
+                int run = readVarInt(in);
+                if (run <= 0 || ticks.size + (long) run > count) {
+                    throw new GdxRuntimeException("Corrupt replay run at tick " + ticks.size + ": " + file);
+                }
+                for (int i = 0; i < run; i++) ticks.add(mask);
+            }
+            Replay replay = new Replay(seed, enemyCount, level.isEmpty() ? null : level, ticks);
+            replay.checksum = checksum;
+            return replay;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading replay: " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed run length");
+    }
+}
@@ -0,0 +1,263 @@
+package com.sek.sekiro2d.level;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A level cut into equally wide chunks along x, as exported by the desktop module's
+ * {@code packLevels} task: a directory holding {@value #INDEX}, plus {@code chunk_<i>.bin}
+ * collision and, for chunks that have any, {@code chunk_<i>.png} art.
+ * <br>
+ * Only the index is read up front. Collision chunks are {@link #prefetch(int)}ed on a background
+ * thread ahead of need, and a chunk must be {@link #require(int)}d before it is read from; that
+ * waits for its prefetch, or reads it on the spot if nobody asked for it in time, so what the
+ * simulation sees never depends on how fast the disk was. Chunks stay resident until they are the
+ * least recently used and the resident ones weigh more than the collision budget. Chunks required
+ * since the last {@link #beginStep()} are never evicted, so the budget can be overrun while bodies
+ * are spread wider than it covers; memory is bounded by how far apart the bodies are, not by how
+ * long the level is. Art is streamed separately by the renderer.
+ * <br>
+ * Index files hold {@code int magic, byte version, float chunkWidth, float artY, float artHeight,
+ * int chunks}, then one byte per chunk that is 1 where the chunk has art.
+ */
+public class Level implements Disposable {
+    public static final String INDEX = "level.bin";
+    private static final int MAGIC = 0x534b4c56; // "SKLV"
+    private static final int VERSION = 1;
+
+    private final FileHandle directory;
+    private final float chunkWidth;
+    private final float artY, artHeight;
+    private final boolean[] art;
+    private final long collisionBudget;
+    private final IntMap<LevelChunk> resident = new IntMap<>();
+    private final IntMap<Prefetch> prefetching = new IntMap<>();
+    // Created on the first prefetch, so levels that never stream start no thread.
+    private AsyncExecutor executor;
+    private long residentBytes;
+    private int blockingReads;
+    private int stamp;
+
+    private static class Prefetch {
+        final AsyncResult<LevelChunk> result;
+        int lastWanted;
+
+        Prefetch(AsyncResult<LevelChunk> result) {
+            this.result = result;
+        }
+    }
+
+    private Level(FileHandle directory, float chunkWidth, float artY, float artHeight, boolean[] art, long collisionBudget) {
+        this.directory = directory;
+        this.chunkWidth = chunkWidth;
+        this.artY = artY;
+        this.artHeight = artHeight;
+        this.art = art;
+        this.collisionBudget = collisionBudget;
+    }
+
+    public static Level load(FileHandle directory, long collisionBudget) {
+        FileHandle file = directory.child(INDEX);
+        DataInputStream in = new DataInputStream(file.read(4096));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new GdxRuntimeException("Not a level index: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new GdxRuntimeException("Unsupported level version " + version + ": " + file);
+            }
+            float chunkWidth = in.readFloat();
+            float artY = in.readFloat();
+            float artHeight = in.readFloat();
+            int count = in.readInt();
+            if (!(chunkWidth > 0) || count < 0 || count > file.length()) {
+                throw new GdxRuntimeException("Corrupt level index: " + file);
+            }
+            boolean[] art = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                art[i] = in.readByte() != 0;
+            }
+            return new Level(directory, chunkWidth, artY, artHeight, art, collisionBudget);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading level index: " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+
+    public static void writeIndex(FileHandle directory, float chunkWidth, float artY, float artHeight, boolean[] art) {
+        FileHandle file = directory.child(INDEX);
+        DataOutputStream out = new DataOutputStream(file.write(false, 4096));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeFloat(chunkWidth);
+            out.writeFloat(artY);
+            out.writeFloat(artHeight);
+            out.writeInt(art.length);
+            for (boolean hasArt : art) {
+                out.writeByte(hasArt ? 1 : 0);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing level index: " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+    public static String chunkName(int index) {
+        return "chunk_" + index;
+    }
+
+    /** The chunk covering {@code x}; may be outside the level, which has no platforms there. */
+    public int chunkAt(float x) {
+        return (int) Math.floor(x / chunkWidth);
+    }
+
+    public int getChunkCount() {
+        return art.length;
+    }
+
+    public float getChunkWidth() {
+        return chunkWidth;
+    }
+
+    public float getArtY() {
+        return artY;
+    }
+
+    public float getArtHeight() {
+        return artHeight;
+    }
+
+    public boolean hasArt(int index) {
+        return index >= 0 && index < art.length && art[index];
+    }
+
+    /** Path of the chunk's art, for loading through an AssetManager. */
+    public String artPath(int index) {
+        return directory.child(chunkName(index) + ".png").path();
+    }
+
+    private FileHandle collisionFile(int index) {
+        return directory.child(chunkName(index) + ".bin");
+    }
+
+    /** Starts a new round of {@link #require(int)} calls; chunks not required again become evictable. */
+    public void beginStep() {
+        stamp++;
+    }
+
+    /**
+     * Starts reading chunk {@code index} on a background thread, unless it is resident or already
+     * on its way; out of range is ignored. Changes nothing the simulation can see.
+     */
+    public void prefetch(final int index) {
+        if (index < 0 || index >= art.length || resident.containsKey(index)) return;
+        Prefetch prefetch = prefetching.get(index);
+        if (prefetch == null) {
+            if (executor == null) {
+                executor = new AsyncExecutor(1, "level-chunks");
+            }
+            final FileHandle file = collisionFile(index);
+            prefetch = new Prefetch(executor.submit(() -> LevelChunk.read(file, index)));
+            prefetching.put(index, prefetch);
+        }
+        prefetch.lastWanted = stamp;
+    }
+
+    /**
+     * Makes chunk {@code index} resident, waiting for its prefetch or, if there was none, reading it
+     * now; out of range is ignored.
+     */
+    public void require(int index) {
+        if (index < 0 || index >= art.length) return;
+        LevelChunk chunk = resident.get(index);
+        if (chunk == null) {
+            Prefetch prefetch = prefetching.remove(index);
+            if (prefetch != null) {
+                chunk = prefetch.result.get();
+            } else {
+                chunk = LevelChunk.read(collisionFile(index), index);
+                blockingReads++;
+            }
+            resident.put(index, chunk);
+            residentBytes += chunk.bytes();
+        }
+        chunk.lastUsed = stamp;
+    }
+
+    /**
+     * Evicts least recently used chunks until the rest fit the budget, keeping those required this
+     * step, and drops finished prefetches that nothing wanted this step.
+     */
+    public void trim() {
+        IntMap.Entries<Prefetch> entries = prefetching.entries();
+        while (entries.hasNext()) {
+            Prefetch prefetch = entries.next().value;
+            if (prefetch.lastWanted != stamp && prefetch.result.isDone()) {
+                entries.remove();
+            }
+        }
+
+        while (residentBytes > collisionBudget) {
+            LevelChunk oldest = null;
+            for (LevelChunk chunk : resident.values()) {
+                if (chunk.lastUsed != stamp && (oldest == null || chunk.lastUsed < oldest.lastUsed)) {
+                    oldest = chunk;
+                }
+            }
+            if (oldest == null) return;
+            resident.remove(oldest.getIndex());
+            residentBytes -= oldest.bytes();
+        }
+    }
+
+    /**
+     * Where a body falling from {@code fromY} to {@code toY} over {@code x} lands, or NaN. Reads
+     * resident chunks only, so it is safe to call from several threads between {@link #trim()} and
+     * the next {@link #require(int)}.
+     */
+    public float landing(float x, float fromY, float toY) {
+        LevelChunk chunk = resident.get(chunkAt(x));
+        return chunk != null ? chunk.landing(x, fromY, toY) : Float.NaN;
+    }
+
+    /** Whether a platform holds up a body standing at {@code y} over {@code x}; resident chunks only. */
+    public boolean supports(float x, float y) {
+        LevelChunk chunk = resident.get(chunkAt(x));
+        return chunk != null && chunk.supports(x, y);
+    }
+
+    public int getResidentChunks() {
+        return resident.size;
+    }
+
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /** Chunks read on the calling thread because no prefetch had asked for them. */
+    public int getBlockingReads() {
+        return blockingReads;
+    }
+
+    @Override
+    public void dispose() {
+        if (executor != null) {
+            executor.dispose();
+            executor = null;
+        }
+        prefetching.clear();
+    }
+}
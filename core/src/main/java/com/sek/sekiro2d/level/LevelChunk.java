@@ -0,0 +1,123 @@
+package com.sek.sekiro2d.level;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Collision data of one chunk of a {@link Level}: platforms that bodies land on from above and can
+ * walk off. Platforms crossing a chunk boundary are split, so every chunk answers for its own range
+ * of x alone.
+ * <br>
+ * Files hold {@code int magic, byte version, int platforms}, then {@code float x, y, width, height}
+ * per platform, in world units.
+ */
+public class LevelChunk {
+    private static final int MAGIC = 0x534b4348; // "SKCH"
+    private static final int VERSION = 1;
+    // Array and object headers, roughly; only used to weigh chunks against the collision budget.
+    private static final int OVERHEAD_BYTES = 64;
+
+    private final int index;
+    private final float[] platforms;
+    int lastUsed;
+
+    /** @param platforms x, y, width and height of each platform, in world units. */
+    public LevelChunk(int index, float[] platforms) {
+        if (platforms.length % 4 != 0) {
+            throw new GdxRuntimeException("Platforms must be x, y, width, height quadruples");
+        }
+        this.index = index;
+        this.platforms = platforms;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getPlatformCount() {
+        return platforms.length / 4;
+    }
+
+    public Rectangle getPlatform(int platform, Rectangle out) {
+        int i = platform * 4;
+        return out.set(platforms[i], platforms[i + 1], platforms[i + 2], platforms[i + 3]);
+    }
+
+    long bytes() {
+        return OVERHEAD_BYTES + platforms.length * 4L;
+    }
+
+    /**
+     * The top of the highest platform under {@code x} that a body falling from {@code fromY} to
+     * {@code toY} passes through, or NaN if it passes none.
+     */
+    float landing(float x, float fromY, float toY) {
+        float landing = Float.NaN;
+        for (int i = 0; i < platforms.length; i += 4) {
+            float top = platforms[i + 1] + platforms[i + 3];
+            if (x >= platforms[i] && x < platforms[i] + platforms[i + 2] && top <= fromY && top >= toY
+                && (Float.isNaN(landing) || top > landing)) {
+                landing = top;
+            }
+        }
+        return landing;
+    }
+
+    /** Whether a body standing at height {@code y} over {@code x} stands on a platform. */
+    boolean supports(float x, float y) {
+        for (int i = 0; i < platforms.length; i += 4) {
+            if (x >= platforms[i] && x < platforms[i] + platforms[i + 2] && platforms[i + 1] + platforms[i + 3] == y) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void write(FileHandle file) {
+        DataOutputStream out = new DataOutputStream(file.write(false, 4096));
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(getPlatformCount());
+            for (float value : platforms) {
+                out.writeFloat(value);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error writing level chunk: " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+    public static LevelChunk read(FileHandle file, int index) {
+        DataInputStream in = new DataInputStream(file.read(4096));
+        try {
+            if (in.readInt() != MAGIC) {
+                throw new GdxRuntimeException("Not a level chunk: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new GdxRuntimeException("Unsupported level chunk version " + version + ": " + file);
+            }
+            int count = in.readInt();
+            if (count < 0 || count > file.length() / 16) {
+                throw new GdxRuntimeException("Corrupt platform count " + count + ": " + file);
+            }
+            float[] platforms = new float[count * 4];
+            for (int i = 0; i < platforms.length; i++) {
+                platforms[i] = in.readFloat();
+            }
+            return new LevelChunk(index, platforms);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error reading level chunk: " + file, e);
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Aspect;
+import com.artemis.ComponentMapper;
+import com.artemis.systems.IteratingSystem;
+import com.sek.sekiro2d.component.Health;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Sprite;
+import com.sek.sekiro2d.component.Velocity;
+import com.sek.sekiro2d.component.Weapon;
+
+/** Picks each sprite's clip from its entity's state and advances it; facing is left to the renderer. */
+public class AnimationSystem extends IteratingSystem {
+    ComponentMapper<Sprite> sprites;
+    ComponentMapper<Velocity> velocities;
+    ComponentMapper<Weapon> weapons;
+    ComponentMapper<Health> healths;
+
+    public AnimationSystem() {
+        super(Aspect.all(Sprite.class, Position.class));
+    }
+
+    @Override
+    protected void process(int entityId) {
+        Sprite sprite = sprites.get(entityId);
+
+        if (sprite.death >= 0 && healths.has(entityId) && healths.get(entityId).dead) {
+            sprite.animation.play(sprite.death);
+        } else if (weapons.has(entityId) && weapons.get(entityId).attacking) {
+            // Swings are timed by the weapon so the frame always matches the hitbox.
+            sprite.animation.set(sprite.attack, weapons.get(entityId).timer);
+            return;
+        } else if (sprite.idle < 0 || (velocities.has(entityId) && velocities.get(entityId).x != 0)) {
+            sprite.animation.play(sprite.walk);
+        } else {
+            sprite.animation.play(sprite.idle);
+        }
+        sprite.animation.update(world.delta);
+    }
+}
@@ -0,0 +1,86 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Aspect;
+import com.artemis.BaseEntitySystem;
+import com.artemis.ComponentMapper;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import com.sek.sekiro2d.component.Health;
+import com.sek.sekiro2d.component.Hitbox;
+import com.sek.sekiro2d.component.PlayerControl;
+import com.sek.sekiro2d.component.Weapon;
+
+/**
+ * Applies the weapon hits the {@link PhysicsSystem} found this step. A swing damages every opposing
+ * entity it began to overlap in the first step it touches anything, then stays spent until the next
+ * swing. Dead enemies are removed from the world; the player is only flagged so the game can end.
+ * Each hit spawns its effects through the {@link EffectSystem} where the weapon and the target overlap.
+ * <br>
+ * The player's hits land first, so an enemy killed in the same step as its own swing connects
+ * doesn't hurt the player; otherwise hits are applied in the order the contacts began.
+ */
+public class CombatSystem extends BaseEntitySystem {
+    ComponentMapper<Weapon> weapons;
+    ComponentMapper<Health> healths;
+    ComponentMapper<PlayerControl> controls;
+    ComponentMapper<Hitbox> hitboxes;
+    PhysicsSystem physics;
+    EffectSystem effects;
+
+    // Attackers whose swing landed this step, spent once every hit of the step is applied.
+    private final IntArray landed = new IntArray(1024);
+
+    public CombatSystem() {
+        super(Aspect.all(Weapon.class, Health.class));
+    }
+
+    @Override
+    protected boolean checkProcessing() {
+        return physics.getHits().size > 0;
+    }
+
+    @Override
+    protected void processSystem() {
+        IntArray hits = physics.getHits();
+        landed.clear();
+        applyHits(hits, true);
+        applyHits(hits, false);
+        for (int i = 0, n = landed.size; i < n; i++) {
+            weapons.get(landed.items[i]).hasHit = true;
+        }
+    }
+
+    /** Applies the hits of the player, or of everyone else. */
+    private void applyHits(IntArray hits, boolean byPlayer) {
+        int[] pairs = hits.items;
+        for (int i = 0, n = hits.size; i < n; i += 2) {
+            int attackerId = pairs[i];
+            if (controls.has(attackerId) != byPlayer) continue;
+            int targetId = pairs[i + 1];
+            // Either may have died, or been removed, since the contact began.
+            if (!weapons.has(attackerId) || !healths.has(attackerId) || healths.get(attackerId).dead) continue;
+            if (!healths.has(targetId) || healths.get(targetId).dead) continue;
+            Weapon weapon = weapons.get(attackerId);
+            if (!weapon.attacking || weapon.hasHit) continue;
+
+            Health health = healths.get(targetId);
+            health.current = Math.max(0, health.current - weapon.damage);
+            landed.add(attackerId);
+            spawnHitEffects(weapon.hitbox, hitboxes.get(targetId).bounds, weapon.damage);
+            if (health.current <= 0) {
+                health.dead = true;
+                if (!controls.has(targetId)) {
+                    world.delete(targetId);
+                }
+            }
+        }
+    }
+
+    private void spawnHitEffects(Rectangle weapon, Rectangle target, int damage) {
+        float left = Math.max(weapon.x, target.x);
+        float right = Math.min(weapon.x + weapon.width, target.x + target.width);
+        float bottom = Math.max(weapon.y, target.y);
+        float top = Math.min(weapon.y + weapon.height, target.y + target.height);
+        effects.spawnHit((left + right) / 2, (bottom + top) / 2, damage);
+    }
+}
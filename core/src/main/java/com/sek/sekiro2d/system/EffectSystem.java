@@ -0,0 +1,90 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Archetype;
+import com.artemis.ArchetypeBuilder;
+import com.artemis.Aspect;
+import com.artemis.ComponentMapper;
+import com.artemis.systems.IteratingSystem;
+import com.sek.sekiro2d.component.DamageNumber;
+import com.sek.sekiro2d.component.HitSpark;
+import com.sek.sekiro2d.component.Lifetime;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Velocity;
+
+/**
+ * Spawns hit sparks and damage numbers and deletes every {@link Lifetime} entity once it runs out.
+ * All of their components are pooled, so after {@link #prewarm(int)} a burst of hits reuses
+ * instances instead of allocating.
+ */
+public class EffectSystem extends IteratingSystem {
+    private static final float SPARK_DURATION = 0.15f;
+    private static final float SPARK_SIZE = 40f;
+    private static final float NUMBER_DURATION = 0.8f;
+    private static final float NUMBER_RISE_SPEED = 60f;
+
+    ComponentMapper<Lifetime> lifetimes;
+    ComponentMapper<Position> positions;
+    ComponentMapper<Velocity> velocities;
+    ComponentMapper<HitSpark> sparks;
+    ComponentMapper<DamageNumber> numbers;
+
+    private Archetype sparkArchetype;
+    private Archetype numberArchetype;
+
+    public EffectSystem() {
+        super(Aspect.all(Lifetime.class));
+    }
+
+    @Override
+    protected void initialize() {
+        sparkArchetype = new ArchetypeBuilder()
+            .add(Position.class)
+            .add(Lifetime.class)
+            .add(HitSpark.class)
+            .build(world, "hitSpark");
+        numberArchetype = new ArchetypeBuilder()
+            .add(Position.class)
+            .add(Velocity.class)
+            .add(Lifetime.class)
+            .add(DamageNumber.class)
+            .build(world, "damageNumber");
+    }
+
+    /** Spawns a spark at ({@code x}, {@code y}) and the damage number above it. */
+    public void spawnHit(float x, float y, int damage) {
+        int spark = world.create(sparkArchetype);
+        positions.get(spark).set(x, y);
+        sparks.get(spark).size = SPARK_SIZE;
+        start(lifetimes.get(spark), SPARK_DURATION);
+
+        int number = world.create(numberArchetype);
+        positions.get(number).set(x, y + SPARK_SIZE / 2);
+        velocities.get(number).y = NUMBER_RISE_SPEED;
+        numbers.get(number).amount = damage;
+        start(lifetimes.get(number), NUMBER_DURATION);
+    }
+
+    /**
+     * Fills the component pools for {@code count} simultaneous hits. The entities are deleted right
+     * away and their components reach the pools at the next world flush.
+     */
+    public void prewarm(int count) {
+        for (int i = 0; i < count; i++) {
+            world.delete(world.create(sparkArchetype));
+            world.delete(world.create(numberArchetype));
+        }
+    }
+
+    @Override
+    protected void process(int entityId) {
+        Lifetime lifetime = lifetimes.get(entityId);
+        lifetime.remaining -= world.delta;
+        if (lifetime.remaining <= 0) {
+            world.delete(entityId);
+        }
+    }
+
+    private static void start(Lifetime lifetime, float duration) {
+        lifetime.duration = lifetime.remaining = duration;
+    }
+}
@@ -0,0 +1,92 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Aspect;
+import com.artemis.BaseEntitySystem;
+import com.artemis.ComponentMapper;
+import com.artemis.utils.IntBag;
+import com.badlogic.gdx.math.RandomXS128;
+import com.sek.sekiro2d.WorkerPool;
+import com.sek.sekiro2d.ai.EnemyBrain;
+import com.sek.sekiro2d.ai.ThinkScheduler;
+import com.sek.sekiro2d.component.EnemyAi;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Velocity;
+import com.sek.sekiro2d.component.Weapon;
+
+/**
+ * Runs each enemy's behavior tree on the steps the {@link ThinkScheduler} gives it, and steers every
+ * enemy towards the target on every step according to its last decision. Both passes are split over
+ * the {@link WorkerPool}; the target's position is read once per step, before either starts.
+ */
+public class EnemyAiSystem extends BaseEntitySystem {
+    // Everyone re-thinks every THINK_INTERVAL steps (30 Hz) until THINK_BUDGET per step is reached.
+    private static final int THINK_INTERVAL = 4;
+    private static final int THINK_BUDGET = 64;
+    private static final int THINK_GRAIN = 16;
+    private static final int STEER_GRAIN = 256;
+
+    ComponentMapper<EnemyAi> ais;
+    ComponentMapper<Position> positions;
+    ComponentMapper<Velocity> velocities;
+    ComponentMapper<Weapon> weapons;
+
+    private final RandomXS128 random;
+    private final WorkerPool workers;
+    private final ThinkScheduler scheduler = new ThinkScheduler(THINK_INTERVAL, THINK_BUDGET);
+    private final WorkerPool.Job think = this::think;
+    private final WorkerPool.Job steer = this::steer;
+    private int target = -1;
+    private float targetX, targetY;
+    private int[] ids;
+
+    /** @param random seeds each enemy's own generator, so a session seed reproduces every decision. */
+    public EnemyAiSystem(RandomXS128 random, WorkerPool workers) {
+        super(Aspect.all(EnemyAi.class, Position.class, Velocity.class, Weapon.class));
+        this.random = random;
+        this.workers = workers;
+    }
+
+    public void setTarget(int entityId) {
+        target = entityId;
+    }
+
+    @Override
+    protected void inserted(int entityId) {
+        EnemyAi ai = ais.get(entityId);
+        if (ai.brain == null) {
+            ai.brain = new EnemyBrain();
+        }
+        ai.brain.bind(ai, positions.get(entityId), velocities.get(entityId), weapons.get(entityId), random.nextLong());
+    }
+
+    @Override
+    protected boolean checkProcessing() {
+        return target >= 0;
+    }
+
+    @Override
+    protected void processSystem() {
+        Position position = positions.get(target);
+        targetX = position.x;
+        targetY = position.y;
+
+        IntBag entities = subscription.getEntities();
+        ids = entities.getData();
+        workers.run(think, scheduler.begin(entities.size()), THINK_GRAIN);
+        workers.run(steer, entities.size(), STEER_GRAIN);
+        ids = null;
+    }
+
+    private void think(int from, int to) {
+        for (int k = from; k < to; k++) {
+            ais.get(ids[scheduler.index(k)]).brain.think(targetX, targetY);
+        }
+    }
+
+    private void steer(int from, int to) {
+        float delta = world.getDelta();
+        for (int i = from; i < to; i++) {
+            ais.get(ids[i]).brain.steer(targetX, targetY, delta);
+        }
+    }
+}
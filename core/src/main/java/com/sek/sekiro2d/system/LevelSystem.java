@@ -0,0 +1,67 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Aspect;
+import com.artemis.BaseEntitySystem;
+import com.artemis.ComponentMapper;
+import com.artemis.utils.IntBag;
+import com.sek.sekiro2d.component.Gravity;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Velocity;
+import com.sek.sekiro2d.level.Level;
+
+/**
+ * Before movement, makes the level's collision chunks under every body that reads the level this
+ * step, and those next to it, resident, then trims the rest to the collision budget. Bodies standing
+ * on the floor never read the level, so a crowd walking along it keeps nothing loaded. Runs on the
+ * calling thread, so the movement jobs that follow only ever read chunks that are already loaded.
+ * <br>
+ * Requiring a chunk that isn't resident yet reads it on the spot, so chunks are prefetched ahead of
+ * need: the one past the neighbours in the direction a body moves, and those around a body that is
+ * still rising, as it only reads the level once it falls.
+ */
+public class LevelSystem extends BaseEntitySystem {
+    ComponentMapper<Position> positions;
+    ComponentMapper<Velocity> velocities;
+    ComponentMapper<Gravity> gravities;
+
+    private final Level level;
+    private final float floorHeight;
+    private final float gravity;
+
+    /** @param gravity the same acceleration {@link MovementSystem} applies. */
+    public LevelSystem(Level level, float floorHeight, float gravity) {
+        super(Aspect.all(Position.class, Velocity.class, Gravity.class));
+        this.level = level;
+        this.floorHeight = floorHeight;
+        this.gravity = gravity;
+    }
+
+    @Override
+    protected void processSystem() {
+        level.beginStep();
+        IntBag entities = subscription.getEntities();
+        int[] ids = entities.getData();
+        for (int i = 0, n = entities.size(); i < n; i++) {
+            Position position = positions.get(ids[i]);
+            boolean grounded = gravities.get(ids[i]).grounded;
+            if (grounded && position.y <= floorHeight) continue;
+            Velocity velocity = velocities.get(ids[i]);
+            int chunk = level.chunkAt(position.x);
+            // Movement only looks for a platform to land on once this step's gravity turns the body downwards.
+            if (!grounded && velocity.y + gravity * world.delta >= 0) {
+                level.prefetch(chunk - 1);
+                level.prefetch(chunk);
+                level.prefetch(chunk + 1);
+                continue;
+            }
+            // Neighbours too: a body can cross into them during this step.
+            level.require(chunk - 1);
+            level.require(chunk);
+            level.require(chunk + 1);
+            if (velocity.x != 0) {
+                level.prefetch(velocity.x > 0 ? chunk + 2 : chunk - 2);
+            }
+        }
+        level.trim();
+    }
+}
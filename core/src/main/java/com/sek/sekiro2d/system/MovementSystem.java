@@ -0,0 +1,136 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Aspect;
+import com.artemis.BaseEntitySystem;
+import com.artemis.ComponentMapper;
+import com.artemis.utils.IntBag;
+import com.sek.sekiro2d.WorkerPool;
+import com.sek.sekiro2d.component.Gravity;
+import com.sek.sekiro2d.component.Hitbox;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Velocity;
+import com.sek.sekiro2d.level.Level;
+
+/**
+ * Integrates velocity and gravity for one step and keeps hitboxes on their owners. Falling bodies
+ * land on the floor or on the level's platforms, and fall again once they walk off a platform.
+ * Integration is split over the {@link WorkerPool}; the {@link PhysicsSystem} picks up the hitboxes
+ * that moved afterwards, on the calling thread.
+ * <br>
+ * A body that spent a whole step at rest, standing still on the ground, sleeps: it is skipped
+ * entirely until something gives it velocity again. Platforms never move, so skipping it changes
+ * nothing but the cost of a crowd standing around.
+ */
+public class MovementSystem extends BaseEntitySystem {
+    private static final int GRAIN = 512;
+
+    ComponentMapper<Position> positions;
+    ComponentMapper<Velocity> velocities;
+    ComponentMapper<Gravity> gravities;
+    ComponentMapper<Hitbox> hitboxes;
+
+    private final float gravity;
+    private final float floorHeight;
+    private final Level level;
+    private final WorkerPool workers;
+    private final WorkerPool.Job integrate = this::integrate;
+    private int[] ids;
+    private boolean[] awake = new boolean[64];
+    private int awakeCount;
+
+    /** @param level platforms to land on, kept resident by a {@link LevelSystem}; null for the floor only. */
+    public MovementSystem(float gravity, float floorHeight, Level level, WorkerPool workers) {
+        super(Aspect.all(Position.class, Velocity.class));
+        this.gravity = gravity;
+        this.floorHeight = floorHeight;
+        this.level = level;
+        this.workers = workers;
+    }
+
+    /** Where a body stands on the ground: the middle of its hitbox, or its position without one. */
+    static float footX(Position position, Hitbox hitbox) {
+        return hitbox != null ? position.x + hitbox.bounds.width / 2 : position.x;
+    }
+
+    @Override
+    protected void processSystem() {
+        IntBag entities = subscription.getEntities();
+        ids = entities.getData();
+        int count = entities.size();
+        if (awake.length < count) {
+            // As big as the bag, which GameSimulation reserves for a whole round up front.
+            awake = new boolean[Math.max(count, entities.getCapacity())];
+        }
+        workers.run(integrate, count, GRAIN);
+        awakeCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (awake[i]) awakeCount++;
+        }
+        ids = null;
+    }
+
+    private void integrate(int from, int to) {
+        for (int i = from; i < to; i++) {
+            awake[i] = process(ids[i]);
+        }
+    }
+
+    /** Bodies that were integrated in the last step; the rest slept. */
+    public int getAwakeCount() {
+        return awakeCount;
+    }
+
+    /** Moves one body, unless it sleeps; returns whether it was awake. */
+    private boolean process(int entityId) {
+        Position position = positions.get(entityId);
+        Velocity velocity = velocities.get(entityId);
+        Gravity body = gravities.has(entityId) ? gravities.get(entityId) : null;
+        if (isResting(position, velocity, body)) return false;
+        float delta = world.delta;
+
+        position.previousX = position.x;
+        position.previousY = position.y;
+        position.x += velocity.x * delta;
+
+        if (body == null) {
+            position.y += velocity.y * delta;
+        } else {
+            float footX = footX(position, hitboxes.has(entityId) ? hitboxes.get(entityId) : null);
+            if (body.grounded && level != null && position.y > floorHeight && !level.supports(footX, position.y)) {
+                body.grounded = false;
+            }
+            if (!body.grounded) {
+                float fromY = position.y;
+                velocity.y += gravity * delta;
+                position.y += velocity.y * delta;
+
+                float platform = level != null && velocity.y < 0 ? level.landing(footX, fromY, position.y) : Float.NaN;
+                if (!Float.isNaN(platform)) {
+                    land(position, velocity, body, platform);
+                } else if (position.y <= floorHeight) {
+                    land(position, velocity, body, floorHeight);
+                }
+            }
+        }
+
+        if (hitboxes.has(entityId)) {
+            hitboxes.get(entityId).bounds.setPosition(position.x, position.y);
+        }
+        return true;
+    }
+
+    /**
+     * Whether the body neither moves nor moved in the last step, so its position, interpolation and
+     * hitbox are all settled already.
+     */
+    private static boolean isResting(Position position, Velocity velocity, Gravity body) {
+        return velocity.x == 0 && velocity.y == 0 && (body == null || body.grounded)
+            && position.x == position.previousX && position.y == position.previousY;
+    }
+
+    private static void land(Position position, Velocity velocity, Gravity body, float height) {
+        position.y = height;
+        body.grounded = true;
+        velocity.y = 0;
+    }
+}
@@ -0,0 +1,382 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Aspect;
+import com.artemis.BaseEntitySystem;
+import com.artemis.ComponentMapper;
+import com.artemis.utils.IntBag;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.sek.sekiro2d.component.EnemyAi;
+import com.sek.sekiro2d.component.Hitbox;
+import com.sek.sekiro2d.component.PlayerControl;
+import com.sek.sekiro2d.component.Weapon;
+
+/**
+ * Finds weapon hits with a Box2D {@link World}. The player's and each enemy's {@link Hitbox} is a
+ * sensor body, and so is every {@link Weapon} while its swing is live, that is attacking and not yet
+ * spent. Swings only collide with the other side: the player's sword with enemies, enemy swings with
+ * the player. Each contact that begins queues an attacker and target pair in {@link #getHits()} for
+ * the {@link CombatSystem} to apply in the same step.
+ * <br>
+ * Movement stays with the {@link MovementSystem}, so the bodies carry no velocity and are moved to
+ * their hitboxes instead. A crowd costs as little as it can: Box2D puts the bodies to sleep, enemy
+ * bodies never pair with each other, disarmed weapons have no body, and enemy hurtboxes are only
+ * brought up to date while the player's sword is live, and only near the player; further away they
+ * are deactivated and leave the broadphase.
+ * <br>
+ * The world advances in fixed sub-steps however the ECS world is processed. Everything here runs on
+ * the calling thread in entity order, so the same session sees the same contacts, in the same order,
+ * on any number of worker threads.
+ */
+public class PhysicsSystem extends BaseEntitySystem {
+    // Box2D is tuned for bodies of a few meters; hitboxes are around 100 world units.
+    private static final float METERS_PER_UNIT = 0.01f;
+    // Box2D rounds every polygon off by this many meters; boxes are shrunk by it so they touch
+    // exactly where the hitboxes do.
+    private static final float POLYGON_RADIUS = 0.01f;
+    // Two, so a pair the first finds for bodies moved this step is touching by the second.
+    private static final int SUB_STEPS = 2;
+    // Sensors have no constraints to solve, so one iteration of each is plenty.
+    private static final int VELOCITY_ITERATIONS = 1;
+    private static final int POSITION_ITERATIONS = 1;
+    // Enemies centered further than this from the player can't be reached by the sword, which
+    // extends about 200 units from the player's side.
+    private static final float ACTIVE_RANGE = 400f;
+    // The most destroyed bodies World keeps for reuse.
+    private static final int WORLD_POOL = 200;
+
+    private static final short PLAYER = 0x1;
+    private static final short ENEMIES = 0x2;
+    private static final short PLAYER_WEAPON = 0x4;
+    private static final short ENEMY_WEAPON = 0x8;
+
+    ComponentMapper<Hitbox> hitboxes;
+    ComponentMapper<Weapon> weapons;
+    ComponentMapper<PlayerControl> controls;
+    ComponentMapper<EnemyAi> ais;
+
+    private final World physics;
+    private final float subStep;
+    private final BodyDef bodyDef = new BodyDef();
+    private final FixtureDef fixtureDef = new FixtureDef();
+    private final PolygonShape box;
+    // Hurtboxes of removed entities, deactivated, for the next ones to reuse.
+    private final Array<Body> freeHurtboxes = new Array<>(false, 64);
+    // Attacker and target ids, in pairs, of the contacts that began this step.
+    private final IntArray hits = new IntArray(1024);
+    private float accumulator;
+    private int player = -1;
+
+    // Per entity id; the bodies and where each hitbox was when its body was last moved.
+    private Body[] hurtboxBodies = new Body[0];
+    private Body[] weaponBodies = new Body[0];
+    // What the entity's weapon collides as, or 0 for none.
+    private short[] weaponCategories = new short[0];
+    private boolean[] enemyHurtboxes = new boolean[0];
+    private boolean[] activeHurtboxes = new boolean[0];
+    private float[] syncedX = new float[0];
+    private float[] syncedY = new float[0];
+    // Fixture user data; boxed once per id, as ids get reused round after round.
+    private Integer[] boxedIds = new Integer[0];
+
+    /** @param step the simulation's fixed step, which Box2D splits into {@value #SUB_STEPS} sub-steps. */
+    public PhysicsSystem(float step) {
+        super(Aspect.all(Hitbox.class));
+        Box2D.init();
+        physics = new World(new Vector2(0, 0), true);
+        physics.setContactListener(new HitListener());
+        subStep = step / SUB_STEPS;
+        box = new PolygonShape();
+
+        bodyDef.fixedRotation = true;
+        bodyDef.gravityScale = 0;
+        fixtureDef.shape = box;
+        fixtureDef.isSensor = true;
+    }
+
+    /** Attacker and target entity ids, in pairs, of the hits found this step. */
+    public IntArray getHits() {
+        return hits;
+    }
+
+    @Override
+    protected void inserted(int entityId) {
+        ensureCapacity(entityId + 1);
+        boolean isPlayer = controls.has(entityId);
+        weaponCategories[entityId] = 0;
+        enemyHurtboxes[entityId] = false;
+        if (!isPlayer && !ais.has(entityId)) return;
+
+        Rectangle bounds = hitboxes.get(entityId).bounds;
+        // Enemies start out of the broadphase; the player's first swing brings in those near it.
+        hurtboxBodies[entityId] = obtainHurtbox(entityId, bounds, isPlayer ? PLAYER : ENEMIES,
+            isPlayer ? ENEMY_WEAPON : PLAYER_WEAPON, isPlayer);
+        activeHurtboxes[entityId] = isPlayer;
+        enemyHurtboxes[entityId] = !isPlayer;
+        syncedX[entityId] = bounds.x;
+        syncedY[entityId] = bounds.y;
+        if (weapons.has(entityId)) {
+            weaponCategories[entityId] = isPlayer ? PLAYER_WEAPON : ENEMY_WEAPON;
+        }
+        if (isPlayer) {
+            player = entityId;
+        }
+    }
+
+    @Override
+    protected void removed(int entityId) {
+        if (hurtboxBodies[entityId] != null) {
+            freeHurtbox(hurtboxBodies[entityId]);
+            hurtboxBodies[entityId] = null;
+        }
+        if (weaponBodies[entityId] != null) {
+            physics.destroyBody(weaponBodies[entityId]);
+            weaponBodies[entityId] = null;
+        }
+        if (entityId == player) {
+            player = -1;
+        }
+    }
+
+    /**
+     * Makes room for {@code hurtboxes} entities and {@code swings} live at once without creating
+     * bodies mid-round. Hurtboxes are parked in {@link #freeHurtboxes}; swings go through the pool
+     * World keeps of destroyed bodies, which holds {@value #WORLD_POOL} at most, so only that many
+     * are prewarmed.
+     */
+    public void prewarm(int hurtboxes, int swings) {
+        Rectangle bounds = new Rectangle(0, 0, 100, 100);
+        for (int i = 0; i < hurtboxes; i++) {
+            freeHurtboxes.add(attachBox(createBody(bounds, ENEMIES), bounds, ENEMIES, PLAYER_WEAPON));
+        }
+        int pooled = Math.min(swings, WORLD_POOL);
+        Array<Body> bodies = new Array<>(pooled);
+        for (int i = 0; i < pooled; i++) {
+            bodies.add(attachBox(createBody(bounds, ENEMY_WEAPON), bounds, ENEMY_WEAPON, PLAYER));
+        }
+        for (int i = 0; i < pooled; i++) {
+            physics.destroyBody(bodies.get(i));
+        }
+    }
+
+    /** A hurtbox, reused from {@link #freeHurtboxes} when there is one. */
+    private Body obtainHurtbox(int entityId, Rectangle bounds, short category, short mask, boolean active) {
+        Body body;
+        if (freeHurtboxes.size > 0) {
+            body = freeHurtboxes.pop();
+            body.destroyFixture(body.getFixtureList().first());
+            body.setType(bodyType(category));
+            body.setTransform(centerX(bounds), centerY(bounds), 0);
+        } else {
+            body = createBody(bounds, category);
+        }
+        attachBox(body, bounds, category, mask).getFixtureList().first().setUserData(boxedId(entityId));
+        body.setActive(active);
+        return body;
+    }
+
+    /**
+     * Takes the hurtbox out of the world until it is obtained again. World only keeps
+     * {@value #WORLD_POOL} destroyed bodies for reuse, fewer than a round of enemies, so destroying
+     * them would allocate afresh every round; deactivated bodies leave the broadphase and cost next to
+     * nothing per step.
+     */
+    private void freeHurtbox(Body body) {
+        body.setActive(false);
+        freeHurtboxes.add(body);
+    }
+
+    /** An inactive body; swings stay awake, as they are short-lived and must find targets that sleep. */
+    private Body createBody(Rectangle bounds, short category) {
+        bodyDef.type = bodyType(category);
+        bodyDef.allowSleep = category == PLAYER || category == ENEMIES;
+        bodyDef.active = false;
+        bodyDef.position.set(centerX(bounds), centerY(bounds));
+        return physics.createBody(bodyDef);
+    }
+
+    /**
+     * Only the player's bodies are dynamic: Box2D never pairs two bodies that aren't, so enemies
+     * crowding each other are turned away natively instead of each pair asking the contact filter.
+     */
+    private static BodyDef.BodyType bodyType(short category) {
+        boolean ofPlayer = category == PLAYER || category == PLAYER_WEAPON;
+        return ofPlayer ? BodyDef.BodyType.DynamicBody : BodyDef.BodyType.KinematicBody;
+    }
+
+    /** Gives the body its sensor box over {@code bounds}. */
+    private Body attachBox(Body body, Rectangle bounds, short category, short mask) {
+        box.setAsBox(bounds.width / 2 * METERS_PER_UNIT - POLYGON_RADIUS,
+            bounds.height / 2 * METERS_PER_UNIT - POLYGON_RADIUS);
+        fixtureDef.filter.categoryBits = category;
+        fixtureDef.filter.maskBits = mask;
+        body.createFixture(fixtureDef);
+        return body;
+    }
+
+    private Integer boxedId(int entityId) {
+        if (boxedIds[entityId] == null) {
+            boxedIds[entityId] = entityId;
+        }
+        return boxedIds[entityId];
+    }
+
+    @Override
+    protected void processSystem() {
+        hits.clear();
+        IntBag entities = subscription.getEntities();
+        int[] ids = entities.getData();
+        int count = entities.size();
+        boolean playerSwinging = false;
+        for (int i = 0; i < count; i++) {
+            int entityId = ids[i];
+            short category = weaponCategories[entityId];
+            if (category == 0) continue;
+            syncWeapon(entityId, category, weapons.get(entityId));
+            playerSwinging |= category == PLAYER_WEAPON && weaponBodies[entityId] != null;
+        }
+
+        if (player >= 0) {
+            syncHurtbox(player, hitboxes.get(player).bounds);
+        }
+        // Only the player's sword hits enemies, so until it swings their hurtboxes can stay wherever
+        // they were, seen by nothing.
+        if (playerSwinging) {
+            Rectangle playerBounds = hitboxes.get(player).bounds;
+            float playerX = playerBounds.x + playerBounds.width / 2;
+            for (int i = 0; i < count; i++) {
+                int entityId = ids[i];
+                if (!enemyHurtboxes[entityId]) continue;
+                Rectangle bounds = hitboxes.get(entityId).bounds;
+                boolean near = Math.abs(bounds.x + bounds.width / 2 - playerX) < ACTIVE_RANGE;
+                if (near) {
+                    syncHurtbox(entityId, bounds);
+                }
+                if (near != activeHurtboxes[entityId]) {
+                    hurtboxBodies[entityId].setActive(near);
+                    activeHurtboxes[entityId] = near;
+                }
+            }
+        }
+
+        accumulator += world.delta;
+        while (accumulator >= subStep) {
+            physics.step(subStep, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+            accumulator -= subStep;
+        }
+    }
+
+    private void syncHurtbox(int entityId, Rectangle bounds) {
+        if (bounds.x != syncedX[entityId] || bounds.y != syncedY[entityId]) {
+            hurtboxBodies[entityId].setTransform(centerX(bounds), centerY(bounds), 0);
+            syncedX[entityId] = bounds.x;
+            syncedY[entityId] = bounds.y;
+        }
+    }
+
+    /**
+     * Gives a swing a body for as long as it is live and keeps it on the weapon's hitbox. Disarmed
+     * weapons, nearly all of them at any time, have no body at all.
+     */
+    private void syncWeapon(int entityId, short category, Weapon weapon) {
+        Body body = weaponBodies[entityId];
+        if (!weapon.attacking || weapon.hasHit) {
+            if (body != null) {
+                physics.destroyBody(body);
+                weaponBodies[entityId] = null;
+            }
+        } else if (body == null) {
+            body = attachBox(createBody(weapon.hitbox, category), weapon.hitbox, category,
+                category == PLAYER_WEAPON ? ENEMIES : PLAYER);
+            body.getFixtureList().first().setUserData(boxedId(entityId));
+            body.setActive(true);
+            weaponBodies[entityId] = body;
+        } else {
+            body.setTransform(centerX(weapon.hitbox), centerY(weapon.hitbox), 0);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= hurtboxBodies.length) return;
+        int size = Math.max(capacity, hurtboxBodies.length * 2);
+        Body[] newHurtboxes = new Body[size];
+        System.arraycopy(hurtboxBodies, 0, newHurtboxes, 0, hurtboxBodies.length);
+        hurtboxBodies = newHurtboxes;
+        Body[] newWeapons = new Body[size];
+        System.arraycopy(weaponBodies, 0, newWeapons, 0, weaponBodies.length);
+        weaponBodies = newWeapons;
+        short[] newCategories = new short[size];
+        System.arraycopy(weaponCategories, 0, newCategories, 0, weaponCategories.length);
+        weaponCategories = newCategories;
+        boolean[] newEnemies = new boolean[size];
+        System.arraycopy(enemyHurtboxes, 0, newEnemies, 0, enemyHurtboxes.length);
+        enemyHurtboxes = newEnemies;
+        boolean[] newActive = new boolean[size];
+        System.arraycopy(activeHurtboxes, 0, newActive, 0, activeHurtboxes.length);
+        activeHurtboxes = newActive;
+        float[] newX = new float[size];
+        System.arraycopy(syncedX, 0, newX, 0, syncedX.length);
+        syncedX = newX;
+        float[] newY = new float[size];
+        System.arraycopy(syncedY, 0, newY, 0, syncedY.length);
+        syncedY = newY;
+        Integer[] newBoxedIds = new Integer[size];
+        System.arraycopy(boxedIds, 0, newBoxedIds, 0, boxedIds.length);
+        boxedIds = newBoxedIds;
+    }
+
+    private static float centerX(Rectangle bounds) {
+        return (bounds.x + bounds.width / 2) * METERS_PER_UNIT;
+    }
+
+    private static float centerY(Rectangle bounds) {
+        return (bounds.y + bounds.height / 2) * METERS_PER_UNIT;
+    }
+
+    @Override
+    protected void dispose() {
+        box.dispose();
+        physics.dispose();
+    }
+
+    /** Queues a hit for every contact that begins; filtering already leaves only weapon against target. */
+    private class HitListener implements ContactListener {
+        @Override
+        public void beginContact(Contact contact) {
+            Fixture a = contact.getFixtureA();
+            Fixture b = contact.getFixtureB();
+            int idA = (Integer) a.getUserData();
+            int idB = (Integer) b.getUserData();
+            if (a.getBody() == weaponBodies[idA]) {
+                hits.add(idA, idB);
+            } else {
+                hits.add(idB, idA);
+            }
+        }
+
+        @Override
+        public void endContact(Contact contact) {
+        }
+
+        @Override
+        public void preSolve(Contact contact, Manifold oldManifold) {
+        }
+
+        @Override
+        public void postSolve(Contact contact, ContactImpulse impulse) {
+        }
+    }
+}
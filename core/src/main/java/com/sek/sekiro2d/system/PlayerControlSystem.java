@@ -0,0 +1,70 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Aspect;
+import com.artemis.ComponentMapper;
+import com.artemis.systems.IteratingSystem;
+import com.sek.sekiro2d.component.Gravity;
+import com.sek.sekiro2d.component.Health;
+import com.sek.sekiro2d.component.PlayerControl;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Velocity;
+import com.sek.sekiro2d.component.Weapon;
+
+/** Turns the player's latched intent into velocity, facing, jumps, swings and heals. */
+public class PlayerControlSystem extends IteratingSystem {
+    private static final int HEAL_AMOUNT = 30;
+    private static final float HEAL_COOLDOWN = 2.0f;
+
+    ComponentMapper<PlayerControl> controls;
+    ComponentMapper<Position> positions;
+    ComponentMapper<Velocity> velocities;
+    ComponentMapper<Gravity> gravities;
+    ComponentMapper<Weapon> weapons;
+    ComponentMapper<Health> healths;
+
+    private final float jumpVelocity;
+
+    public PlayerControlSystem(float jumpVelocity) {
+        super(Aspect.all(PlayerControl.class, Position.class, Velocity.class, Gravity.class, Weapon.class, Health.class));
+        this.jumpVelocity = jumpVelocity;
+    }
+
+    @Override
+    protected void process(int entityId) {
+        PlayerControl control = controls.get(entityId);
+        Position position = positions.get(entityId);
+        Velocity velocity = velocities.get(entityId);
+        Weapon weapon = weapons.get(entityId);
+
+        velocity.x = control.moveAxis * velocity.speed;
+        // Facing is locked for the duration of a swing.
+        if (control.moveAxis != 0 && !weapon.attacking) {
+            position.rightFacing = control.moveAxis > 0;
+        }
+
+        if (control.attackRequested) {
+            weapon.start();
+            control.attackRequested = false;
+        }
+
+        if (control.healCooldown > 0) {
+            control.healCooldown -= world.delta;
+        }
+        if (control.healRequested) {
+            if (control.healCooldown <= 0) {
+                healths.get(entityId).current += HEAL_AMOUNT;
+                control.healCooldown = HEAL_COOLDOWN;
+            }
+            control.healRequested = false;
+        }
+
+        if (control.jumpRequested) {
+            Gravity gravity = gravities.get(entityId);
+            if (gravity.grounded) {
+                velocity.y = jumpVelocity;
+                gravity.grounded = false;
+            }
+            control.jumpRequested = false;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Aspect;
+import com.artemis.ComponentMapper;
+import com.artemis.systems.IteratingSystem;
+import com.artemis.utils.IntBag;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Sprite;
+import com.sek.sekiro2d.component.Weapon;
+
+/**
+ * Draws every sprite the camera sees at its interpolated position. It is not part of the fixed-step
+ * update; the game calls {@link #draw(SpriteBatch, OrthographicCamera, float)} once per rendered
+ * frame inside its own batch.
+ * <br>
+ * Every frame comes from the one atlas, so the batch never switches textures here and a crowd costs
+ * one draw call per batch-full of visible sprites. Sprites outside the view never reach the batch.
+ * Directional clips only exist facing one way and are mirrored through their texture coordinates.
+ */
+public class SpriteRenderSystem extends IteratingSystem {
+    ComponentMapper<Sprite> sprites;
+    ComponentMapper<Position> positions;
+    ComponentMapper<Weapon> weapons;
+
+    public SpriteRenderSystem() {
+        super(Aspect.all(Sprite.class, Position.class));
+    }
+
+    @Override
+    protected void initialize() {
+        setEnabled(false);
+    }
+
+    @Override
+    protected void process(int entityId) {
+    }
+
+    /** Draws what {@code camera} sees; the batch must be drawing with the camera's projection. */
+    public void draw(SpriteBatch batch, OrthographicCamera camera, float alpha) {
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        float left = camera.position.x - halfWidth;
+        float right = camera.position.x + halfWidth;
+        float bottom = camera.position.y - halfHeight;
+        float top = camera.position.y + halfHeight;
+
+        IntBag entities = getEntityIds();
+        int[] ids = entities.getData();
+        for (int i = 0, n = entities.size(); i < n; i++) {
+            int entityId = ids[i];
+            Sprite sprite = sprites.get(entityId);
+            Position position = positions.get(entityId);
+            TextureRegion frame = sprite.animation.getFrame();
+            float x = position.interpolatedX(alpha);
+            float y = position.interpolatedY(alpha);
+            float width = sprite.width;
+            float height = sprite.height;
+
+            if (sprite.attackScale > 0 && weapons.has(entityId) && weapons.get(entityId).attacking) {
+                float attackWidth = frame.getRegionWidth() * sprite.attackScale;
+                float attackHeight = frame.getRegionHeight() * sprite.attackScale;
+
+                x += (position.rightFacing ? (sprite.width - attackWidth * 3 / 4) / 2 : (sprite.width - attackWidth));
+                y += (sprite.height - attackHeight * 4 / 3 - 1) / 2;
+                width = attackWidth;
+                height = attackHeight;
+            }
+
+            if (x > right || x + width < left || y > top || y + height < bottom) continue;
+            // One set of frames serves both facings: the other one swaps the horizontal texture coordinates.
+            if (sprite.animation.isMirrored(position.rightFacing)) {
+                batch.draw(frame.getTexture(), x, y, width, height, frame.getU2(), frame.getV2(), frame.getU(), frame.getV());
+            } else {
+                batch.draw(frame, x, y, width, height);
+            }
+        }
+    }
+}
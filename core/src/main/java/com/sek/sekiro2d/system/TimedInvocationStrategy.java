@@ -0,0 +1,54 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.BaseSystem;
+import com.artemis.SystemInvocationStrategy;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Runs systems in order, like artemis' default {@code InvocationStrategy}, and while timing is on
+ * adds up the nanoseconds each system takes until they are taken with {@link #takeNanos(Class)}.
+ */
+public class TimedInvocationStrategy extends SystemInvocationStrategy {
+    private long[] nanos = new long[0];
+    private boolean timing;
+
+    @Override
+    protected void initialize() {
+        nanos = new long[systems.size()];
+    }
+
+    @Override
+    protected void process() {
+        Object[] data = systems.getData();
+        for (int i = 0, n = systems.size(); i < n; i++) {
+            if (disabled.get(i)) continue;
+            updateEntityStates();
+            BaseSystem system = (BaseSystem) data[i];
+            if (timing) {
+                long start = TimeUtils.nanoTime();
+                system.process();
+                nanos[i] += TimeUtils.nanoTime() - start;
+            } else {
+                system.process();
+            }
+        }
+        updateEntityStates();
+    }
+
+    public void setTiming(boolean timing) {
+        this.timing = timing;
+    }
+
+    /** Nanoseconds spent in systems of {@code type} since the last call for it. */
+    public long takeNanos(Class<? extends BaseSystem> type) {
+        long total = 0;
+        Object[] data = systems.getData();
+        for (int i = 0, n = systems.size(); i < n; i++) {
+            if (type.isInstance(data[i])) {
+                total += nanos[i];
+                nanos[i] = 0;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,73 @@
+package com.sek.sekiro2d.system;
+
+import com.artemis.Aspect;
+import com.artemis.BaseEntitySystem;
+import com.artemis.ComponentMapper;
+import com.artemis.utils.IntBag;
+import com.sek.sekiro2d.WorkerPool;
+import com.sek.sekiro2d.component.Position;
+import com.sek.sekiro2d.component.Weapon;
+
+/**
+ * Advances swings and cooldowns and moves each weapon hitbox to the side its owner faces. Every
+ * entity only touches its own weapon, so the work is split over the {@link WorkerPool}.
+ */
+public class WeaponSystem extends BaseEntitySystem {
+    private static final int GRAIN = 512;
+
+    ComponentMapper<Weapon> weapons;
+    ComponentMapper<Position> positions;
+
+    private final WorkerPool workers;
+    private final WorkerPool.Job update = this::update;
+    private int[] ids;
+
+    public WeaponSystem(WorkerPool workers) {
+        super(Aspect.all(Weapon.class, Position.class));
+        this.workers = workers;
+    }
+
+    @Override
+    protected void processSystem() {
+        IntBag entities = subscription.getEntities();
+        ids = entities.getData();
+        workers.run(update, entities.size(), GRAIN);
+        ids = null;
+    }
+
+    private void update(int from, int to) {
+        for (int i = from; i < to; i++) {
+            process(ids[i]);
+        }
+    }
+
+    private void process(int entityId) {
+        Weapon weapon = weapons.get(entityId);
+        Position position = positions.get(entityId);
+
+        if (weapon.cooldownTimer > 0) {
+            weapon.cooldownTimer -= world.delta;
+        }
+
+        if (weapon.attacking) {
+            weapon.timer += world.delta;
+            float progress = Math.min(weapon.timer / weapon.duration, 1.0f);
+
+            if (position.rightFacing) {
+                weapon.rotation = 90 - (progress * 90);
+            } else {
+                weapon.rotation = 90 + (progress * 90);
+            }
+
+            if (weapon.timer >= weapon.duration) {
+                weapon.attacking = false;
+                weapon.timer = 0;
+                weapon.rotation = 0;
+                weapon.cooldownTimer = weapon.cooldown;
+            }
+        }
+
+        float offsetX = position.rightFacing ? weapon.offsetRightX : weapon.offsetLeftX;
+        weapon.hitbox.setPosition(position.x + offsetX, position.y + weapon.offsetY);
+    }
+}
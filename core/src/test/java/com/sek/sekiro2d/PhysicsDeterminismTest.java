@@ -0,0 +1,77 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.IntArray;
+import com.sek.sekiro2d.component.PlayerControl;
+import com.sek.sekiro2d.system.PhysicsSystem;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The Box2D world must report the same weapon hits, on the same ticks and in the same order, however
+ * many workers move the entities it tracks.
+ */
+public class PhysicsDeterminismTest {
+    private static final int ENEMIES = 300;
+    private static final int TICKS = 3000;
+    private static final long SEED = 0xb0c2d;
+    private static final int PLAYER = -1;
+
+    @Test
+    public void hitsMatchOnAnyThreadCount() {
+        int[] expected = hits(0);
+        boolean playerLanded = false;
+        boolean enemyLanded = false;
+        for (int i = 0; i < expected.length; i += 3) {
+            if (expected[i + 1] == PLAYER) {
+                playerLanded = true;
+            } else {
+                enemyLanded = true;
+            }
+        }
+        assertTrue("The player never hit an enemy", playerLanded);
+        assertTrue("No enemy ever hit the player", enemyLanded);
+
+        for (int threads : new int[] {1, 3, 7}) {
+            assertArrayEquals("threads=" + threads, expected, hits(threads));
+        }
+    }
+
+    /**
+     * Tick, attacker and target of every hit in a seeded session, with the attacker written as
+     * {@link #PLAYER} when it is the player, as ids are reused from round to round.
+     */
+    private static int[] hits(int threads) {
+        GameSimulation simulation = new GameSimulation(ENEMIES, SEED);
+        simulation.setWorkerThreads(threads);
+        PhysicsSystem physics = simulation.getWorld().getSystem(PhysicsSystem.class);
+        RandomXS128 intents = new RandomXS128(SEED);
+        IntArray hits = new IntArray();
+        try {
+            while (simulation.getTicks() < TICKS) {
+                if (simulation.isOver()) {
+                    simulation.reset();
+                }
+                PlayerControl control = simulation.getPlayerControl();
+                if (simulation.getTicks() % 30 == 0) {
+                    control.moveAxis = intents.nextInt(3) - 1;
+                }
+                control.attackRequested = intents.nextInt(8) == 0;
+                control.healRequested = intents.nextInt(200) == 0;
+                simulation.step();
+
+                IntArray pairs = physics.getHits();
+                for (int i = 0; i < pairs.size; i += 2) {
+                    int attacker = pairs.get(i);
+                    hits.add((int) simulation.getTicks(), attacker == simulation.getPlayer() ? PLAYER : attacker,
+                        pairs.get(i + 1));
+                }
+            }
+        } finally {
+            simulation.dispose();
+        }
+        return hits.toArray();
+    }
+}
@@ -0,0 +1,69 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.sek.sekiro2d.component.PlayerControl;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Once warm, a simulation step must not allocate. The same seeded session runs twice and a tick
+ * fails only if it allocated both times: what the simulation allocates lands on the same tick in
+ * each run, while the JIT now and then charges a few hundred bytes to whichever tick it happens to
+ * be recompiling in.
+ */
+public class SimulationAllocationTest {
+    private static final int ENEMIES = 20;
+    private static final int WARM_UP_TICKS = 4000;
+    private static final int TICKS = 16000;
+    private static final long SEED = 0xa110c;
+
+    @Test
+    public void warmStepsDoNotAllocate() {
+        assumeTrue(new AllocationCounter().isSupported());
+        long[] first = run();
+        long[] second = run();
+
+        StringBuilder allocating = new StringBuilder();
+        for (int i = 0; i < TICKS; i++) {
+            if (first[i] > 0 && second[i] > 0) {
+                allocating.append(" tick ").append(WARM_UP_TICKS + i).append(": ").append(first[i]).append(" bytes");
+            }
+        }
+        assertTrue("Allocated on" + allocating, allocating.length() == 0);
+    }
+
+    /** Bytes each measured tick allocated; round restarts aren't counted. */
+    private static long[] run() {
+        GameSimulation simulation = new GameSimulation(ENEMIES, SEED);
+        // Workers allocate on their own threads, out of the counter's sight.
+        simulation.setWorkerThreads(0);
+        AllocationCounter allocations = new AllocationCounter();
+        RandomXS128 intents = new RandomXS128(SEED);
+        long[] bytes = new long[TICKS];
+        try {
+            for (int tick = 0; tick < WARM_UP_TICKS + TICKS; tick++) {
+                if (simulation.isOver()) {
+                    simulation.reset();
+                }
+                PlayerControl control = simulation.getPlayerControl();
+                if (tick % 30 == 0) {
+                    control.moveAxis = intents.nextInt(3) - 1;
+                }
+                control.jumpRequested = intents.nextInt(60) == 0;
+                control.attackRequested = intents.nextInt(8) == 0;
+                control.healRequested = intents.nextInt(200) == 0;
+                allocations.begin();
+                simulation.step();
+                allocations.end();
+                if (tick >= WARM_UP_TICKS) {
+                    bytes[tick - WARM_UP_TICKS] = allocations.getLastFrameBytes();
+                }
+            }
+        } finally {
+            simulation.dispose();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,84 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.RandomXS128;
+import com.sek.sekiro2d.component.PlayerControl;
+import com.sek.sekiro2d.input.Replay;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * A session recorded on one thread must play back to the same state on any number of workers;
+ * replays, and the checksum they end with, depend on it.
+ */
+public class SimulationDeterminismTest {
+    // Enough enemies that every system's range is split into several chunks.
+    private static final int ENEMIES = 1100;
+    private static final int TICKS = 900;
+    private static final long SEED = 0x5eed;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayEndsInRecordedStateOnAnyThreadCount() throws IOException {
+        Replay recorded = record();
+        FileHandle file = new FileHandle(folder.newFile("session.rpl"));
+        recorded.write(file);
+        Replay replay = Replay.read(file);
+
+        for (int threads : new int[] {0, 1, 3, 7}) {
+            GameSimulation simulation = new GameSimulation(replay.getEnemyCount(), replay.getSeed());
+            simulation.setWorkerThreads(threads);
+            try {
+                play(simulation, replay);
+                assertEquals("threads=" + threads, replay.getChecksum(), simulation.checksum());
+            } finally {
+                simulation.dispose();
+            }
+        }
+    }
+
+    /** Plays random but seeded intents on the calling thread alone. */
+    private static Replay record() {
+        GameSimulation simulation = new GameSimulation(ENEMIES, SEED);
+        simulation.setWorkerThreads(0);
+        Replay replay = new Replay(SEED, ENEMIES);
+        simulation.setRecording(replay);
+        RandomXS128 intents = new RandomXS128(SEED);
+        try {
+            while (simulation.getTicks() < TICKS) {
+                if (simulation.isOver()) {
+                    simulation.reset();
+                }
+                PlayerControl control = simulation.getPlayerControl();
+                if (simulation.getTicks() % 30 == 0) {
+                    control.moveAxis = intents.nextInt(3) - 1;
+                }
+                control.jumpRequested = intents.nextInt(60) == 0;
+                control.attackRequested = intents.nextInt(8) == 0;
+                control.healRequested = intents.nextInt(200) == 0;
+                simulation.step();
+            }
+            replay.setChecksum(simulation.checksum());
+        } finally {
+            simulation.dispose();
+        }
+        return replay;
+    }
+
+    private static void play(GameSimulation simulation, Replay replay) {
+        while (simulation.getTicks() < replay.getTicks()) {
+            if (simulation.isOver()) {
+                simulation.reset();
+            }
+            replay.play((int) simulation.getTicks(), simulation.getPlayerControl());
+            simulation.step();
+        }
+    }
+}
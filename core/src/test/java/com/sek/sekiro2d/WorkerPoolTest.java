@@ -0,0 +1,100 @@
+package com.sek.sekiro2d;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class WorkerPoolTest {
+    private static final int JOBS = 5000;
+    private static final int MAX_COUNT = 4096;
+
+    /** Counts how often each index ran; indices are only ever written by the chunk that owns them. */
+    private static class CountingJob implements WorkerPool.Job {
+        final int[] runs = new int[MAX_COUNT];
+
+        @Override
+        public void run(int from, int to) {
+            for (int i = from; i < to; i++) {
+                runs[i]++;
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void backToBackJobsRunEveryIndexExactlyOnce() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads : new int[] {0, 1, 2, 3, Math.max(4, cores - 1), cores * 2}) {
+            WorkerPool pool = new WorkerPool(threads);
+            try {
+                runJobs(pool, threads);
+            } finally {
+                pool.dispose();
+            }
+        }
+    }
+
+    private static void runJobs(WorkerPool pool, int threads) {
+        RandomXS128 random = new RandomXS128(threads);
+        // Two jobs alternate, as systems do, so a stale worker would run into the other one's ranges.
+        CountingJob[] jobs = {new CountingJob(), new CountingJob()};
+        for (int i = 0; i < JOBS; i++) {
+            CountingJob job = jobs[i & 1];
+            int count = 1 + random.nextInt(MAX_COUNT);
+            int grain = 1 + random.nextInt(64);
+            pool.run(job, count, grain);
+            for (int index = 0; index < MAX_COUNT; index++) {
+                int expected = index < count ? 1 : 0;
+                if (job.runs[index] != expected) {
+                    fail("threads=" + threads + " job " + i + " count=" + count + " grain=" + grain
+                        + ": index " + index + " ran " + job.runs[index] + " times");
+                }
+                job.runs[index] = 0;
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void failureReachesCallerAndPoolKeepsWorking() {
+        WorkerPool pool = new WorkerPool(3);
+        try {
+            try {
+                pool.run((from, to) -> {
+                    if (from == 0) throw new IllegalStateException("first chunk");
+                }, 1000, 10);
+                fail("A failing job returned normally");
+            } catch (GdxRuntimeException expected) {
+                assertEquals(IllegalStateException.class, expected.getCause().getClass());
+            }
+
+            CountingJob job = new CountingJob();
+            pool.run(job, 1000, 10);
+            for (int index = 0; index < 1000; index++) {
+                assertEquals("index " + index, 1, job.runs[index]);
+            }
+        } finally {
+            pool.dispose();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void changingThreadCountKeepsRunningJobs() {
+        WorkerPool pool = new WorkerPool(2);
+        try {
+            CountingJob job = new CountingJob();
+            for (int threads : new int[] {0, 5, 1, 3}) {
+                pool.setThreads(threads);
+                assertEquals(threads, pool.getThreads());
+                pool.run(job, MAX_COUNT, 16);
+                for (int index = 0; index < MAX_COUNT; index++) {
+                    assertEquals("threads=" + threads + " index " + index, 1, job.runs[index]);
+                    job.runs[index] = 0;
+                }
+            }
+        } finally {
+            pool.dispose();
+        }
+    }
+}
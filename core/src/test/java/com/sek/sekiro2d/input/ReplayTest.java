@@ -0,0 +1,162 @@
+package com.sek.sekiro2d.input;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.sek.sekiro2d.component.PlayerControl;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class ReplayTest {
+    private static final int MAGIC = 0x534b5250;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writeThenReadKeepsHeaderAndEveryTick() throws IOException {
+        Replay replay = new Replay(0x1234567890L, 7, "levels/forest");
+        PlayerControl control = new PlayerControl();
+        // A run of 300 needs a two-byte varint; single ticks and the empty mask cover the rest.
+        for (int tick = 0; tick < 1000; tick++) {
+            intent(tick, control);
+            replay.record(control);
+        }
+        replay.setChecksum(-42);
+
+        FileHandle file = new FileHandle(folder.newFile("session.rpl"));
+        replay.write(file);
+        Replay read = Replay.read(file);
+
+        assertEquals(0x1234567890L, read.getSeed());
+        assertEquals(7, read.getEnemyCount());
+        assertEquals("levels/forest", read.getLevel());
+        assertEquals(-42, read.getChecksum());
+        assertEquals(1000, read.getTicks());
+        PlayerControl expected = new PlayerControl();
+        PlayerControl played = new PlayerControl();
+        for (int tick = 0; tick < 1000; tick++) {
+            intent(tick, expected);
+            read.play(tick, played);
+            assertEquals("tick " + tick, expected.moveAxis, played.moveAxis, 0);
+            assertEquals("tick " + tick, expected.jumpRequested, played.jumpRequested);
+            assertEquals("tick " + tick, expected.attackRequested, played.attackRequested);
+            assertEquals("tick " + tick, expected.healRequested, played.healRequested);
+        }
+    }
+
+    private static void intent(int tick, PlayerControl control) {
+        control.moveAxis = tick < 300 ? 1 : tick < 600 ? 0 : -1;
+        control.jumpRequested = tick % 97 == 0;
+        control.attackRequested = tick >= 700 && tick % 2 == 0;
+        control.healRequested = tick == 999;
+    }
+
+    @Test
+    public void sessionWithoutLevelReadsBackAsNull() throws IOException {
+        FileHandle file = new FileHandle(folder.newFile("floor.rpl"));
+        new Replay(1, 1).write(file);
+        Replay read = Replay.read(file);
+        assertNull(read.getLevel());
+        assertEquals(0, read.getTicks());
+    }
+
+    @Test
+    public void readsVersionOneWithoutLevel() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(1);
+        out.writeLong(99);
+        out.writeInt(3);
+        out.writeInt(12345);
+        out.writeLong(130);
+        // 130 ticks of moving right (mask 2) as one run: varint 130 is 0x82 0x01.
+        out.writeByte(2);
+        out.writeByte(0x82);
+        out.writeByte(0x01);
+        FileHandle file = write("v1.rpl", bytes);
+
+        Replay read = Replay.read(file);
+        assertEquals(99, read.getSeed());
+        assertEquals(3, read.getEnemyCount());
+        assertNull(read.getLevel());
+        assertEquals(12345, read.getChecksum());
+        assertEquals(130, read.getTicks());
+        PlayerControl control = new PlayerControl();
+        read.play(129, control);
+        assertEquals(1, control.moveAxis, 0);
+    }
+
+    @Test
+    public void rejectsRunPastTickCount() throws IOException {
+        ByteArrayOutputStream bytes = header(10);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(0);
+        out.writeByte(11);
+        assertCorrupt(write("long-run.rpl", bytes));
+    }
+
+    @Test
+    public void rejectsEmptyRun() throws IOException {
+        ByteArrayOutputStream bytes = header(10);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(0);
+        out.writeByte(0);
+        assertCorrupt(write("empty-run.rpl", bytes));
+    }
+
+    @Test
+    public void rejectsTruncatedRuns() throws IOException {
+        ByteArrayOutputStream bytes = header(10);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(0);
+        out.writeByte(4);
+        assertCorrupt(write("truncated.rpl", bytes));
+    }
+
+    @Test
+    public void rejectsUnknownVersion() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(3);
+        assertCorrupt(write("v3.rpl", bytes));
+    }
+
+    /** A version 2 header on the floor, announcing {@code ticks} ticks. */
+    private static ByteArrayOutputStream header(long ticks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeByte(2);
+        out.writeLong(1);
+        out.writeInt(1);
+        out.writeUTF("");
+        out.writeInt(0);
+        out.writeLong(ticks);
+        return bytes;
+    }
+
+    private FileHandle write(String name, ByteArrayOutputStream bytes) throws IOException {
+        FileHandle file = new FileHandle(folder.newFile(name));
+        file.writeBytes(bytes.toByteArray(), false);
+        return file;
+    }
+
+    private static void assertCorrupt(FileHandle file) {
+        try {
+            Replay.read(file);
+            fail("Read a corrupt replay: " + file);
+        } catch (GdxRuntimeException expected) {
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.sek.sekiro2d.level;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LevelTest {
+    private static final int CHUNKS = 6;
+    private static final float CHUNK_WIDTH = 100;
+    private static final float TOP = 50;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private Level level;
+
+    /** Each chunk holds one platform across its whole width, with its top at {@link #TOP}. */
+    @Before
+    public void writeLevel() {
+        FileHandle directory = new FileHandle(folder.getRoot());
+        for (int i = 0; i < CHUNKS; i++) {
+            new LevelChunk(i, new float[] {i * CHUNK_WIDTH, 30, CHUNK_WIDTH, TOP - 30})
+                .write(directory.child(Level.chunkName(i) + ".bin"));
+        }
+        Level.writeIndex(directory, CHUNK_WIDTH, 0, 100, new boolean[CHUNKS]);
+        // Room for three chunks.
+        level = Level.load(directory, 3 * (64 + 16));
+    }
+
+    @After
+    public void disposeLevel() {
+        level.dispose();
+    }
+
+    @Test
+    public void prefetchedChunksNeedNoBlockingRead() {
+        level.beginStep();
+        level.prefetch(1);
+        level.prefetch(2);
+        // Prefetching alone makes nothing readable.
+        assertFalse(level.supports(150, TOP));
+        level.require(1);
+        level.require(2);
+        assertEquals(0, level.getBlockingReads());
+        assertTrue(level.supports(150, TOP));
+        assertTrue(level.supports(250, TOP));
+
+        level.require(3);
+        assertEquals(1, level.getBlockingReads());
+        // Resident already, so prefetching it again starts nothing.
+        level.prefetch(3);
+        level.require(3);
+        assertEquals(1, level.getBlockingReads());
+    }
+
+    @Test
+    public void outOfRangeIsIgnored() {
+        level.beginStep();
+        level.prefetch(-1);
+        level.prefetch(CHUNKS);
+        level.require(-1);
+        level.require(CHUNKS);
+        assertEquals(0, level.getResidentChunks());
+        assertEquals(0, level.getBlockingReads());
+    }
+
+    @Test
+    public void trimEvictsLeastRecentlyUsedButNotThisStep() {
+        for (int i = 0; i < CHUNKS; i++) {
+            level.beginStep();
+            level.require(i);
+            level.trim();
+        }
+        assertEquals(3, level.getResidentChunks());
+        assertFalse(level.supports(50, TOP));
+        assertTrue(level.supports(550, TOP));
+
+        // Everything required in one step stays, over budget or not.
+        level.beginStep();
+        for (int i = 0; i < CHUNKS; i++) {
+            level.require(i);
+        }
+        level.trim();
+        assertEquals(CHUNKS, level.getResidentChunks());
+    }
+
+    @Test
+    public void unwantedPrefetchIsDroppedAndReadAgainWhenRequired() throws Exception {
+        level.beginStep();
+        level.prefetch(4);
+        level.beginStep();
+        // Give the read time to finish; trim() only drops prefetches that have.
+        for (int i = 0; i < 200; i++) {
+            Thread.sleep(1);
+            level.trim();
+        }
+        level.require(4);
+        assertEquals(1, level.getBlockingReads());
+    }
+}
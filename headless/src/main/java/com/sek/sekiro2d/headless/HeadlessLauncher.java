@@ -0,0 +1,106 @@
+package com.sek.sekiro2d.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.sek.sekiro2d.input.Replay;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Runs the simulation benchmark without a window or GPU. Options: {@code --enemies N} (default 1),
+ * {@code --ticks N} (default 100000), {@code --script FILE} to replace the bundled input script and
+ * {@code --record FILE} to save the run as a replay. {@code --replay FILE} instead plays back a
+ * replay recorded here or by the desktop game, ignoring the options above, and fails with status 1
+ * if the playback ends out of sync. {@code --threads N} sets
+ * the simulation's worker threads for either (default: one per core besides the main thread).
+ * {@code --max-bytes-per-tick N} makes either exit with status 1 if a measured tick allocated more
+ * than N bytes on the stepping thread; pair it with {@code --threads 0} to cover the whole step. The
+ * JIT can charge a few hundred bytes to an odd tick while it recompiles, so a limit of 0 holds under
+ * {@code -XX:TieredStopAtLevel=1}; {@code SimulationAllocationTest} checks 0 with the full JIT.
+ * Replays on a level also allocate on the ticks that start streaming in a chunk.
+ */
+public class HeadlessLauncher {
+    private static final String DEFAULT_SCRIPT = "benchmark.script";
+
+    public static void main(String[] args) {
+        int enemies = 1;
+        long ticks = 100000;
+        String scriptFile = null;
+        String recordFile = null;
+        String replayFile = null;
+        int threads = -1;
+        long maxBytesPerTick = -1;
+        for (int i = 0; i < args.length - 1; i += 2) {
+            String value = args[i + 1];
+            try {
+                if ("--enemies".equals(args[i])) {
+                    enemies = Integer.parseInt(value);
+                } else if ("--ticks".equals(args[i])) {
+                    ticks = Long.parseLong(value);
+                } else if ("--script".equals(args[i])) {
+                    scriptFile = value;
+                } else if ("--record".equals(args[i])) {
+                    recordFile = value;
+                } else if ("--replay".equals(args[i])) {
+                    replayFile = value;
+                } else if ("--threads".equals(args[i])) {
+                    threads = Integer.parseInt(value);
+                } else if ("--max-bytes-per-tick".equals(args[i])) {
+                    maxBytesPerTick = Long.parseLong(value);
+                } else {
+                    System.err.println("Unknown option: " + args[i]);
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid number for " + args[i] + ": " + value);
+            }
+        }
+
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        // The benchmark runs inside create(); no render loop is needed.
+        configuration.updatesPerSecond = -1;
+
+        if (replayFile != null) {
+            Replay replay;
+            try {
+                replay = Replay.read(new FileHandle(replayFile));
+            } catch (GdxRuntimeException e) {
+                System.err.println("Could not read replay: " + e.getMessage());
+                System.exit(1);
+                return;
+            }
+            new HeadlessApplication(new ReplayBenchmark(replay, threads, maxBytesPerTick), configuration);
+            return;
+        }
+
+        String script;
+        try {
+            script = readScript(scriptFile);
+        } catch (IOException e) {
+            System.err.println("Could not read input script: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        new HeadlessApplication(new SimulationBenchmark(enemies, ticks, script,
+            recordFile != null ? new FileHandle(recordFile) : null, threads, maxBytesPerTick), configuration);
+    }
+
+    private static String readScript(String file) throws IOException {
+        InputStream in = file != null
+            ? new FileInputStream(file)
+            : HeadlessLauncher.class.getResourceAsStream("/" + DEFAULT_SCRIPT);
+        if (in == null) {
+            throw new IOException("Missing bundled " + DEFAULT_SCRIPT);
+        }
+        try {
+            return StreamUtils.copyStreamToString(in, 1024, "UTF-8");
+        } finally {
+            StreamUtils.closeQuietly(in);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sek.sekiro2d.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.sek.sekiro2d.AllocationCounter;
+import com.sek.sekiro2d.GameSimulation;
+import com.sek.sekiro2d.input.Replay;
+import com.sek.sekiro2d.level.Level;
+
+/**
+ * Plays a recorded {@link Replay} back as fast as it will go and prints ticks per second, so the
+ * exact same fight can be timed across builds. A tenth of the replay is first played on a separate
+ * simulation to warm up; the measured playback starts from a fresh one, as the recording did, and
+ * reports whether it ended in the recorded state, exiting with status 1 if not. A replay recorded on a level needs that level's
+ * directory, exported by {@code lwjgl3:packLevels}, under the working directory. Allocations are
+ * counted per tick and limited as in {@link SimulationBenchmark}.
+ */
+public class ReplayBenchmark extends ApplicationAdapter {
+    private static final long LEVEL_COLLISION_BUDGET = 64 * 1024;
+
+    private final Replay replay;
+    private final int workerThreads;
+    private final long maxBytesPerTick;
+
+    /**
+     * @param workerThreads simulation worker threads, or negative for the default.
+     * @param maxBytesPerTick most bytes a measured tick may allocate, or negative for no limit.
+     */
+    public ReplayBenchmark(Replay replay, int workerThreads, long maxBytesPerTick) {
+        this.replay = replay;
+        this.workerThreads = workerThreads;
+        this.maxBytesPerTick = maxBytesPerTick;
+    }
+
+    @Override
+    public void create() {
+        AllocationCounter allocations = new AllocationCounter();
+
+        GameSimulation warmUp = createSimulation();
+        play(warmUp, replay.getTicks() / 10, allocations);
+        warmUp.dispose();
+        allocations.reset();
+
+        GameSimulation simulation = createSimulation();
+        long start = TimeUtils.nanoTime();
+        int rounds = play(simulation, replay.getTicks(), allocations);
+        long elapsed = TimeUtils.nanoTime() - start;
+
+        int ticks = replay.getTicks();
+        double seconds = elapsed / 1e9;
+        int checksum = simulation.checksum();
+        boolean inSync = checksum == replay.getChecksum();
+        System.out.println(String.format(
+            "enemies=%d threads=%d ticks=%d rounds=%d seconds=%.3f ticksPerSecond=%.0f microsPerTick=%.2f %s inSync=%b",
+            replay.getEnemyCount(), simulation.getWorkerThreads(), ticks, rounds, seconds, ticks / seconds, elapsed / 1e3 / ticks,
+            SimulationBenchmark.formatAllocations(allocations), inSync));
+
+        simulation.dispose();
+        if (!inSync) {
+            System.err.println(String.format("Playback ended out of sync: checksum %08x, recorded %08x",
+                checksum, replay.getChecksum()));
+        }
+        if (SimulationBenchmark.exceedsLimit(allocations, maxBytesPerTick) || !inSync) {
+            System.exit(1);
+        }
+        Gdx.app.exit();
+    }
+
+    private GameSimulation createSimulation() {
+        // Each simulation gets its own view of the level, as it tracks which chunks are resident.
+        Level level = replay.getLevel() != null ? Level.load(Gdx.files.internal(replay.getLevel()), LEVEL_COLLISION_BUDGET) : null;
+        GameSimulation simulation = new GameSimulation(replay.getEnemyCount(), null, null, level, replay.getSeed());
+        if (workerThreads >= 0) {
+            simulation.setWorkerThreads(workerThreads);
+        }
+        return simulation;
+    }
+
+    /**
+     * Plays the first {@code ticks} recorded ticks, restarting finished rounds and counting each
+     * tick's allocations; returns how many finished.
+     */
+    private int play(GameSimulation simulation, int ticks, AllocationCounter allocations) {
+        int rounds = 0;
+        while (simulation.getTicks() < ticks) {
+            if (simulation.isOver()) {
+                simulation.reset();
+                rounds++;
+            }
+            allocations.begin();
+            replay.play((int) simulation.getTicks(), simulation.getPlayerControl());
+            simulation.step();
+            allocations.end();
+        }
+        return rounds;
+    }
+}
@@ -0,0 +1,174 @@
+package com.sek.sekiro2d.headless;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * {@link MockInput} that replays a key script one tick at a time, both as polled state and as events
+ * to the input processor, just like a real backend. Each script line is
+ * {@code <tick> <key> <down|up>}, e.g. {@code 30 D down}, where keys are {@link Input.Keys#toString(int)}
+ * names such as {@code Space}, or {@code MOUSE_LEFT}/{@code MOUSE_RIGHT}. A {@code length <ticks>} line
+ * makes the script repeat with that period; it defaults to one past the last event. Blank lines and
+ * {@code #} comments are skipped.
+ */
+public class ScriptedInput extends MockInput {
+    private static final int MOUSE_BUTTONS = 5;
+
+    // Events sorted by tick; mouse buttons are stored as -(button + 1).
+    private final IntArray ticks = new IntArray();
+    private final IntArray codes = new IntArray();
+    private final IntArray downs = new IntArray();
+    private final int length;
+
+    private final boolean[] keysDown = new boolean[Input.Keys.MAX_KEYCODE + 1];
+    private final boolean[] keysJustPressed = new boolean[Input.Keys.MAX_KEYCODE + 1];
+    private final boolean[] buttonsDown = new boolean[MOUSE_BUTTONS];
+    private final boolean[] buttonsJustPressed = new boolean[MOUSE_BUTTONS];
+    private final IntArray justPressed = new IntArray();
+    private int tick;
+    private int next;
+    private InputProcessor processor;
+
+    public ScriptedInput(String script) {
+        int declaredLength = -1;
+        String[] lines = script.split("\r?\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+");
+            try {
+                if (parts.length == 2 && "length".equals(parts[0])) {
+                    declaredLength = Integer.parseInt(parts[1]);
+                } else if (parts.length == 3) {
+                    addEvent(Integer.parseInt(parts[0]), code(parts[1]), parseDown(parts[2]));
+                } else {
+                    throw new GdxRuntimeException("Expected <tick> <key> <down|up>");
+                }
+            } catch (RuntimeException e) {
+                throw new GdxRuntimeException("Invalid input script line " + (i + 1) + ": " + line, e);
+            }
+        }
+        int lastTick = ticks.size > 0 ? ticks.peek() : 0;
+        length = declaredLength > 0 ? declaredLength : lastTick + 1;
+        if (lastTick >= length) {
+            throw new GdxRuntimeException("Input script event at tick " + lastTick + " is past its length " + length);
+        }
+    }
+
+    /** Applies the events of the next tick; call once before each simulation step. */
+    public void advance() {
+        for (int i = 0; i < justPressed.size; i++) {
+            int code = justPressed.get(i);
+            if (code < 0) {
+                buttonsJustPressed[-code - 1] = false;
+            } else {
+                keysJustPressed[code] = false;
+            }
+        }
+        justPressed.clear();
+
+        int scriptTick = tick % length;
+        if (scriptTick == 0) {
+            next = 0;
+        }
+        while (next < ticks.size && ticks.get(next) == scriptTick) {
+            apply(codes.get(next), downs.get(next) != 0);
+            next++;
+        }
+        tick++;
+    }
+
+    private void apply(int code, boolean down) {
+        boolean[] state = code < 0 ? buttonsDown : keysDown;
+        boolean[] pressed = code < 0 ? buttonsJustPressed : keysJustPressed;
+        int index = code < 0 ? -code - 1 : code;
+        if (down && !state[index]) {
+            pressed[index] = true;
+            justPressed.add(code);
+        }
+        state[index] = down;
+
+        if (processor == null) return;
+        if (code < 0) {
+            if (down) {
+                processor.touchDown(0, 0, 0, index);
+            } else {
+                processor.touchUp(0, 0, 0, index);
+            }
+        } else if (down) {
+            processor.keyDown(code);
+        } else {
+            processor.keyUp(code);
+        }
+    }
+
+    private void addEvent(int tick, int code, boolean down) {
+        if (tick < 0 || (ticks.size > 0 && tick < ticks.peek())) {
+            throw new GdxRuntimeException("Ticks must be non-negative and in order");
+        }
+        ticks.add(tick);
+        codes.add(code);
+        downs.add(down ? 1 : 0);
+    }
+
+    private static int code(String name) {
+        if ("MOUSE_LEFT".equals(name)) return -(Input.Buttons.LEFT + 1);
+        if ("MOUSE_RIGHT".equals(name)) return -(Input.Buttons.RIGHT + 1);
+        int key = Input.Keys.valueOf(name);
+        if (key < 0) {
+            throw new GdxRuntimeException("Unknown key: " + name);
+        }
+        return key;
+    }
+
+    private static boolean parseDown(String state) {
+        if ("down".equals(state)) return true;
+        if ("up".equals(state)) return false;
+        throw new GdxRuntimeException("Expected down or up, got " + state);
+    }
+
+    @Override
+    public void setInputProcessor(InputProcessor processor) {
+        this.processor = processor;
+    }
+
+    @Override
+    public InputProcessor getInputProcessor() {
+        return processor;
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        if (key == Input.Keys.ANY_KEY) {
+            for (boolean down : keysDown) {
+                if (down) return true;
+            }
+            return false;
+        }
+        return key >= 0 && key < keysDown.length && keysDown[key];
+    }
+
+    @Override
+    public boolean isKeyJustPressed(int key) {
+        if (key == Input.Keys.ANY_KEY) {
+            for (boolean pressed : keysJustPressed) {
+                if (pressed) return true;
+            }
+            return false;
+        }
+        return key >= 0 && key < keysJustPressed.length && keysJustPressed[key];
+    }
+
+    @Override
+    public boolean isButtonPressed(int button) {
+        return button >= 0 && button < MOUSE_BUTTONS && buttonsDown[button];
+    }
+
+    @Override
+    public boolean isButtonJustPressed(int button) {
+        return button >= 0 && button < MOUSE_BUTTONS && buttonsJustPressed[button];
+    }
+}
@@ -0,0 +1,127 @@
+package com.sek.sekiro2d.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.sek.sekiro2d.AllocationCounter;
+import com.sek.sekiro2d.GameSimulation;
+import com.sek.sekiro2d.input.CommandBuffer;
+import com.sek.sekiro2d.input.KeyboardCommands;
+import com.sek.sekiro2d.input.PlayerCommands;
+import com.sek.sekiro2d.input.Replay;
+
+/**
+ * Steps a sprite-less {@link GameSimulation} as fast as it will go, feeding it a {@link ScriptedInput}
+ * through the same command buffer and bindings the game uses, and prints ticks per second. Rounds
+ * that end are restarted, so the tick count is exact. A warm-up of a tenth of the ticks runs
+ * first and is not measured. Given a record file, the whole run including the warm-up is written
+ * there as a {@link Replay}.
+ * <br>
+ * Allocations are counted per tick on the stepping thread, round restarts aside. Given a byte limit,
+ * a run in which any measured tick allocated more exits with status 1; with no worker threads that
+ * covers the whole step.
+ */
+public class SimulationBenchmark extends ApplicationAdapter {
+    private final int enemyCount;
+    private final long tickCount;
+    private final String script;
+    private final FileHandle recordFile;
+    private final int workerThreads;
+    private final long maxBytesPerTick;
+
+    /**
+     * @param recordFile where to write a replay of the run, or null.
+     * @param workerThreads simulation worker threads, or negative for the default.
+     * @param maxBytesPerTick most bytes a measured tick may allocate, or negative for no limit.
+     */
+    public SimulationBenchmark(int enemyCount, long tickCount, String script, FileHandle recordFile, int workerThreads,
+                               long maxBytesPerTick) {
+        this.enemyCount = enemyCount;
+        this.tickCount = tickCount;
+        this.script = script;
+        this.recordFile = recordFile;
+        this.workerThreads = workerThreads;
+        this.maxBytesPerTick = maxBytesPerTick;
+    }
+
+    @Override
+    public void create() {
+        AllocationCounter allocations = new AllocationCounter();
+        CommandBuffer commands = new CommandBuffer(64);
+        ScriptedInput input = new ScriptedInput(script);
+        input.setInputProcessor(new KeyboardCommands(commands));
+        PlayerCommands player = new PlayerCommands();
+        GameSimulation simulation = new GameSimulation(enemyCount);
+        if (workerThreads >= 0) {
+            simulation.setWorkerThreads(workerThreads);
+        }
+        Replay replay = null;
+        if (recordFile != null) {
+            replay = new Replay(simulation.getSeed(), simulation.getEnemyCount());
+            simulation.setRecording(replay);
+        }
+
+        run(simulation, input, commands, player, tickCount / 10, allocations);
+        allocations.reset();
+
+        long start = TimeUtils.nanoTime();
+        int rounds = run(simulation, input, commands, player, tickCount, allocations);
+        long elapsed = TimeUtils.nanoTime() - start;
+
+        double seconds = elapsed / 1e9;
+        System.out.println(String.format(
+            "enemies=%d threads=%d ticks=%d rounds=%d seconds=%.3f ticksPerSecond=%.0f microsPerTick=%.2f %s",
+            enemyCount, simulation.getWorkerThreads(), tickCount, rounds, seconds, tickCount / seconds, elapsed / 1e3 / tickCount,
+            formatAllocations(allocations)));
+
+        if (replay != null) {
+            replay.setChecksum(simulation.checksum());
+            replay.write(recordFile);
+        }
+        simulation.dispose();
+        if (exceedsLimit(allocations, maxBytesPerTick)) {
+            System.exit(1);
+        }
+        Gdx.app.exit();
+    }
+
+    static String formatAllocations(AllocationCounter allocations) {
+        if (!allocations.isSupported()) {
+            return "bytesPerTick=n/a maxTickBytes=n/a";
+        }
+        return String.format("bytesPerTick=%.2f maxTickBytes=%d", allocations.getBytesPerFrame(), allocations.getMaxFrameBytes());
+    }
+
+    /** Whether a limit is set and some measured tick allocated more; says so on the error stream. */
+    static boolean exceedsLimit(AllocationCounter allocations, long maxBytesPerTick) {
+        if (maxBytesPerTick < 0 || allocations.getMaxFrameBytes() <= maxBytesPerTick) {
+            return false;
+        }
+        System.err.println("A tick allocated " + allocations.getMaxFrameBytes() + " bytes, over the limit of "
+            + maxBytesPerTick);
+        return true;
+    }
+
+    /**
+     * Steps {@code ticks} times, restarting finished rounds and counting each tick's allocations;
+     * returns how many rounds finished.
+     */
+    private static int run(GameSimulation simulation, ScriptedInput input, CommandBuffer commands,
+                           PlayerCommands player, long ticks, AllocationCounter allocations) {
+        int rounds = 0;
+        for (long i = 0; i < ticks; i++) {
+            if (simulation.isOver()) {
+                simulation.reset();
+                rounds++;
+            }
+            allocations.begin();
+            input.advance();
+            // Every command recorded so far belongs to this tick.
+            player.apply(commands, Long.MAX_VALUE, simulation.getPlayerControl());
+            simulation.step();
+            allocations.end();
+        }
+        return rounds;
+    }
+}
@@ -0,0 +1,157 @@
+package com.sek.sekiro2d.lwjgl3;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.tools.bmfont.BitmapFontWriter;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Packs the animation frame folders under {@code assets/} into a single texture atlas.
+ * Run through the {@code lwjgl3:packTextures} Gradle task; region names are the image
+ * paths relative to the assets folder without extension, e.g. {@code enemy/move/walk_right_1}.
+ * <br>
+ * Every font listed in {@value #FONTS} is rasterized with FreeType at its size and packed too, as
+ * region {@code fonts/<name>}, with its glyph metrics written next to the atlas as {@code <name>.fnt}.
+ * The game draws text from the same texture as everything else and never runs FreeType itself.
+ * <br>
+ * Usage: {@code AtlasPacker <assetsDir> <outputDir> <packName> <folder>...}
+ */
+public class AtlasPacker {
+    static final String FONTS = "data/fonts.json";
+    // Large enough for the printable ASCII glyphs at every size we use; baking fails otherwise.
+    private static final int FONT_PAGE_SIZE = 512;
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: AtlasPacker <assetsDir> <outputDir> <packName> <folder>...");
+            System.exit(1);
+        }
+        String[] folders = new String[args.length - 3];
+        System.arraycopy(args, 3, folders, 0, folders.length);
+        pack(new File(args[0]), new File(args[1]), args[2], folders);
+    }
+
+    /** Packs the images under {@code folders} of {@code assetsDir} and bakes the fonts it lists. */
+    static void pack(File assetsDir, File outputDir, String packName, String... folders) {
+        TexturePacker.Settings settings = new TexturePacker.Settings();
+        settings.maxWidth = 2048;
+        settings.maxHeight = 2048;
+        settings.paddingX = 2;
+        settings.paddingY = 2;
+        settings.duplicatePadding = true;
+        settings.filterMin = Texture.TextureFilter.Nearest;
+        settings.filterMag = Texture.TextureFilter.Nearest;
+        // Keep frame names exactly as the files are named; the game looks them up by path.
+        settings.useIndexes = false;
+        settings.silent = true;
+
+        TexturePacker packer = new TexturePacker(settings);
+        packer.setRootDir(assetsDir);
+
+        List<File> images = new ArrayList<>();
+        for (String folder : folders) {
+            collectImages(new File(assetsDir, folder), images);
+        }
+        Collections.sort(images);
+        for (File image : images) {
+            packer.addImage(image);
+        }
+
+        int fonts = bakeFonts(assetsDir, outputDir, packer);
+
+        packer.pack(outputDir, packName);
+        System.out.println("Packed " + images.size() + " images and " + fonts + " fonts into "
+            + new File(outputDir, packName + ".atlas"));
+    }
+
+    private static int bakeFonts(File assetsDir, File outputDir, TexturePacker packer) {
+        File definitions = new File(assetsDir, FONTS);
+        if (!definitions.exists()) return 0;
+        GdxNativesLoader.load();
+        outputDir.mkdirs();
+
+        int count = 0;
+        JsonValue fonts = new JsonReader().parse(new FileHandle(definitions));
+        for (JsonValue font = fonts.child; font != null; font = font.next) {
+            int size = font.getInt("size");
+            FreeTypeFontGenerator generator = new FreeTypeFontGenerator(new FileHandle(new File(assetsDir, font.getString("file"))));
+            // Skyline fills the page row by row from the top, so the part kept by usedHeight stays small.
+            PixmapPacker pages = new PixmapPacker(FONT_PAGE_SIZE, FONT_PAGE_SIZE, Pixmap.Format.RGBA8888, 1, false,
+                new PixmapPacker.SkylineStrategy());
+            try {
+                FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+                parameter.size = size;
+                parameter.packer = pages;
+                FreeTypeFontGenerator.FreeTypeBitmapFontData data = generator.generateData(parameter);
+                if (pages.getPages().size != 1) {
+                    throw new GdxRuntimeException("Font " + font.name + " at size " + size + " doesn't fit one "
+                        + FONT_PAGE_SIZE + "x" + FONT_PAGE_SIZE + " page");
+                }
+                PixmapPacker.Page page = pages.getPages().first();
+                Pixmap pixmap = page.getPixmap();
+                BitmapFontWriter.FontInfo info = new BitmapFontWriter.FontInfo(font.name, size);
+                BitmapFontWriter.writeFont(data, new String[] {font.name + ".png"},
+                    new FileHandle(new File(outputDir, font.name + ".fnt")), info, pixmap.getWidth(), pixmap.getHeight());
+                packer.addImage(toImage(pixmap, usedHeight(data)), "fonts/" + font.name);
+                count++;
+            } finally {
+                pages.dispose();
+                generator.dispose();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rows below the lowest glyph are empty, so only the page above them goes into the atlas. The
+     * generator packs glyphs without names, so the page keeps no rectangles; the glyphs know where they are.
+     */
+    private static int usedHeight(BitmapFont.BitmapFontData data) {
+        int height = 1;
+        for (BitmapFont.Glyph[] page : data.glyphs) {
+            if (page == null) continue;
+            for (BitmapFont.Glyph glyph : page) {
+                if (glyph != null) height = Math.max(height, glyph.srcY + glyph.height);
+            }
+        }
+        return height;
+    }
+
+    private static BufferedImage toImage(Pixmap pixmap, int height) {
+        BufferedImage image = new BufferedImage(pixmap.getWidth(), height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < pixmap.getWidth(); x++) {
+                int rgba = pixmap.getPixel(x, y);
+                image.setRGB(x, y, (rgba >>> 8) | (rgba << 24));
+            }
+        }
+        return image;
+    }
+
+    private static void collectImages(File file, List<File> images) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) return;
+            for (File child : children) collectImages(child, images);
+        } else {
+            String name = file.getName().toLowerCase();
+            if (name.endsWith(".png") || name.endsWith(".jpg")) {
+                images.add(file);
+            }
+        }
+    }
+}
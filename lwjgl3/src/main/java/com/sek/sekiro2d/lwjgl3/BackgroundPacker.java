@@ -0,0 +1,97 @@
+package com.sek.sekiro2d.lwjgl3;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Packs the background tiles into an atlas of their own, {@code <packName>.atlas}, plus
+ * {@code <packName>.half.atlas} at half resolution, and writes every page in both GPU formats next
+ * to its PNG, so the game's texture loader uploads the backgrounds compressed like the level art.
+ * Region names are the image paths relative to the assets folder without extension, as in
+ * {@link AtlasPacker}. Run through the {@code lwjgl3:packBackground} Gradle task.
+ * <br>
+ * The tiles are opaque and drawn scaled, so pages are RGB and filtered linearly. Regions are padded
+ * with copies of their edge pixels, four on each side, so no 4x4 compressed block mixes two tiles.
+ * <br>
+ * Usage: {@code BackgroundPacker <assetsDir> <outputDir> <packName> <folder>...}
+ */
+public class BackgroundPacker {
+    private static final String HALF_RESOLUTION = ".half";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: BackgroundPacker <assetsDir> <outputDir> <packName> <folder>...");
+            System.exit(1);
+        }
+        File assetsDir = new File(args[0]);
+        File outputDir = new File(args[1]);
+        String packName = args[2];
+
+        List<File> images = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            File[] children = new File(assetsDir, args[i]).listFiles();
+            if (children == null) continue;
+            for (File child : children) {
+                String name = child.getName().toLowerCase();
+                if (name.endsWith(".png") || name.endsWith(".jpg")) {
+                    images.add(child);
+                }
+            }
+        }
+        Collections.sort(images);
+        // One run per resolution: with several scales in one run, TexturePacker writes each to a subfolder.
+        pack(images, assetsDir, outputDir, packName, 1);
+        pack(images, assetsDir, outputDir, packName + HALF_RESOLUTION, 0.5f);
+
+        GdxNativesLoader.load();
+        int pages = 0;
+        File[] outputs = outputDir.listFiles();
+        if (outputs != null) {
+            for (File page : outputs) {
+                String name = page.getName();
+                if (!name.startsWith(packName) || !name.endsWith(".png")) continue;
+                BufferedImage image = ImageIO.read(page);
+                if (image == null) {
+                    throw new GdxRuntimeException("Can't read atlas page " + page);
+                }
+                TextureCompressor.writeCompressed(image, outputDir, name.substring(0, name.length() - ".png".length()));
+                pages++;
+            }
+        }
+        System.out.println("Packed " + images.size() + " images into " + pages + " compressed pages of "
+            + new File(outputDir, packName + ".atlas"));
+    }
+
+    private static void pack(List<File> images, File assetsDir, File outputDir, String packName, float scale) {
+        TexturePacker.Settings settings = new TexturePacker.Settings();
+        settings.maxWidth = 2048;
+        settings.maxHeight = 2048;
+        settings.paddingX = 8;
+        settings.paddingY = 8;
+        settings.duplicatePadding = true;
+        settings.filterMin = Texture.TextureFilter.Linear;
+        settings.filterMag = Texture.TextureFilter.Linear;
+        settings.format = Pixmap.Format.RGB888;
+        settings.scale = new float[] {scale};
+        settings.useIndexes = false;
+        settings.silent = true;
+
+        TexturePacker packer = new TexturePacker(settings);
+        packer.setRootDir(assetsDir);
+        for (File image : images) {
+            packer.addImage(image);
+        }
+        packer.pack(outputDir, packName);
+    }
+}
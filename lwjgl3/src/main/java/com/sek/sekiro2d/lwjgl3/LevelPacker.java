@@ -0,0 +1,128 @@
+package com.sek.sekiro2d.lwjgl3;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.XmlReader;
+import com.sek.sekiro2d.level.Level;
+import com.sek.sekiro2d.level.LevelChunk;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.TexturePaint;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Cuts levels drawn in Tiled into the chunks the game streams. Each {@code <levelsDir>/<name>.tmx}
+ * becomes a directory {@code <levelsDir>/<name>/} in the {@link Level} format. Rectangles in the
+ * map's {@value #PLATFORMS} object layer become platforms, split at chunk boundaries, and are
+ * painted with {@code <platformImage>} into one image per chunk that has any, written in every
+ * variant {@link TextureCompressor} makes. The chunk width comes from the map property
+ * {@code chunkWidth}; map pixels are world units, with y flipped so the bottom of the map is at
+ * height 0.
+ * <br>
+ * Usage: {@code LevelPacker <levelsDir> <platformImage> <name>...}
+ */
+public class LevelPacker {
+    static final String PLATFORMS = "platforms";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: LevelPacker <levelsDir> <platformImage> <name>...");
+            System.exit(1);
+        }
+        // The ETC1 encoder behind the ETC2 variants is native.
+        GdxNativesLoader.load();
+        File levelsDir = new File(args[0]);
+        BufferedImage platformImage = ImageIO.read(new File(args[1]));
+        for (int i = 2; i < args.length; i++) {
+            pack(new File(levelsDir, args[i] + ".tmx"), new File(levelsDir, args[i]), platformImage);
+        }
+    }
+
+    static void pack(File mapFile, File outputDir, BufferedImage platformImage) throws IOException {
+        XmlReader.Element map = new XmlReader().parse(new FileHandle(mapFile));
+        int mapWidth = map.getIntAttribute("width") * map.getIntAttribute("tilewidth");
+        int mapHeight = map.getIntAttribute("height") * map.getIntAttribute("tileheight");
+        int chunkWidth = chunkWidth(map, mapFile);
+        int chunks = (mapWidth + chunkWidth - 1) / chunkWidth;
+
+        FloatArray[] platforms = new FloatArray[chunks];
+        for (int i = 0; i < chunks; i++) platforms[i] = new FloatArray();
+        for (XmlReader.Element layer : map.getChildrenByName("objectgroup")) {
+            if (!PLATFORMS.equals(layer.getAttribute("name", null))) continue;
+            for (XmlReader.Element object : layer.getChildrenByName("object")) {
+                float x = object.getFloatAttribute("x");
+                float width = object.getFloatAttribute("width", 0);
+                float height = object.getFloatAttribute("height", 0);
+                float y = mapHeight - object.getFloatAttribute("y") - height;
+                if (width <= 0 || height <= 0) {
+                    throw new GdxRuntimeException("Platform " + object.getAttribute("id", "?") + " in " + mapFile + " is not a rectangle");
+                }
+                int first = Math.max(0, (int) (x / chunkWidth));
+                int last = Math.min(chunks - 1, (int) ((x + width) / chunkWidth));
+                for (int c = first; c <= last; c++) {
+                    float from = Math.max(x, c * chunkWidth);
+                    float to = Math.min(x + width, (c + 1) * chunkWidth);
+                    if (to > from) platforms[c].addAll(from, y, to - from, height);
+                }
+            }
+        }
+
+        FileHandle output = new FileHandle(outputDir);
+        output.deleteDirectory();
+        output.mkdirs();
+        boolean[] art = new boolean[chunks];
+        int painted = 0;
+        for (int c = 0; c < chunks; c++) {
+            new LevelChunk(c, platforms[c].toArray()).write(output.child(Level.chunkName(c) + ".bin"));
+            if (platforms[c].size > 0) {
+                TextureCompressor.writeVariants(paint(platforms[c], c * chunkWidth, chunkWidth, mapHeight, platformImage),
+                    outputDir, Level.chunkName(c));
+                art[c] = true;
+                painted++;
+            }
+        }
+        Level.writeIndex(output, chunkWidth, 0, mapHeight, art);
+        System.out.println("Packed " + mapFile + " into " + chunks + " chunks, " + painted + " with art, in " + outputDir);
+    }
+
+    private static int chunkWidth(XmlReader.Element map, File mapFile) {
+        XmlReader.Element properties = map.getChildByName("properties");
+        if (properties != null) {
+            for (XmlReader.Element property : properties.getChildrenByName("property")) {
+                if ("chunkWidth".equals(property.getAttribute("name"))) {
+                    return Integer.parseInt(property.getAttribute("value"));
+                }
+            }
+        }
+        throw new GdxRuntimeException("Map property chunkWidth is missing: " + mapFile);
+    }
+
+    /** Fills each platform with the image scaled to the platform's height, its top edge on the platform's top. */
+    private static BufferedImage paint(FloatArray platforms, float chunkX, int chunkWidth, int height, BufferedImage image) {
+        BufferedImage chunk = new BufferedImage(chunkWidth, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = chunk.createGraphics();
+        try {
+            for (int i = 0; i < platforms.size; i += 4) {
+                float x = platforms.get(i) - chunkX;
+                float top = height - platforms.get(i + 1) - platforms.get(i + 3);
+                float platformHeight = platforms.get(i + 3);
+                float scale = platformHeight / image.getHeight();
+                // Tiled from world x 0, so the halves of a platform split across chunks meet seamlessly.
+                float anchorX = -(chunkX % (image.getWidth() * scale));
+                graphics.setPaint(new TexturePaint(image, new Rectangle2D.Float(
+                    anchorX, top, image.getWidth() * scale, platformHeight)));
+                graphics.fill(new Rectangle(Math.round(x), Math.round(top), Math.round(platforms.get(i + 2)), Math.round(platformHeight)));
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return chunk;
+    }
+}
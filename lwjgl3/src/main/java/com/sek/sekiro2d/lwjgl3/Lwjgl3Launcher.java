@@ -8,11 +8,39 @@ import com.sek.sekiro2d.SekiroGame;
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
     public static void main(String[] args) {
-        createApplication();
+        createApplication(parseEnemyCount(args), parseFile(args, "--record"), parseFile(args, "--metrics"));
     }
 
-    private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new SekiroGame(), getDefaultConfiguration());
+    private static Lwjgl3Application createApplication(int enemyCount, String replayFile, String metricsFile) {
+        return new Lwjgl3Application(new SekiroGame(enemyCount, replayFile, metricsFile), getDefaultConfiguration());
+    }
+
+    /** {@code --stress N} spawns N enemies per round instead of one. */
+    private static int parseEnemyCount(String[] args) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("--stress".equals(args[i])) {
+                try {
+                    return Integer.parseInt(args[i + 1]);
+                } catch (NumberFormatException e) {
+                    System.err.println("Invalid enemy count for --stress: " + args[i + 1]);
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * The FILE of {@code option FILE}, or null. {@code --record FILE} writes a replay of the session on
+     * exit, for the headless module to play back; {@code --metrics FILE} keeps a rolling CSV log of
+     * the profiler's numbers.
+     */
+    private static String parseFile(String[] args, String option) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (option.equals(args[i])) {
+                return args[i + 1];
+            }
+        }
+        return null;
     }
 
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
@@ -0,0 +1,364 @@
+package com.sek.sekiro2d.lwjgl3;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes an image the way the game's texture loader looks for it: {@code <name>.png}, plus
+ * {@code <name>.dxt5.zktx} and {@code <name>.etc2.zktx} holding the same pixels in the two GPU formats
+ * it can sample without decoding, and the same three again at half resolution as
+ * {@code <name>.half.*}. Both compressed formats pack a 4x4 block into 16 bytes, a quarter of RGBA8888.
+ * The KTX files are gzipped, as libGDX reads {@code .zktx}: mostly empty level art shrinks to little.
+ * <br>
+ * The DXT5 and EAC alpha encoders are simple endpoint fits, good for art with flat or hard-edged
+ * alpha such as level chunks; ETC2 color reuses libGDX's ETC1 encoder, as every ETC1 block is a
+ * valid ETC2 block. That encoder is native, so {@code GdxNativesLoader} must have run.
+ */
+class TextureCompressor {
+    private static final int GL_RGBA = 0x1908;
+    private static final int GL_COMPRESSED_RGBA_S3TC_DXT5 = 0x83F3;
+    private static final int GL_COMPRESSED_RGBA8_ETC2_EAC = 0x9278;
+    private static final byte[] KTX_IDENTIFIER = {
+        (byte) 0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte) 0xBB, '\r', '\n', 0x1A, '\n'};
+    private static final int KTX_HEADER_BYTES = 64;
+
+    // EAC alpha modifiers, one row per table index.
+    private static final int[][] EAC_MODIFIERS = {
+        {-3, -6, -9, -15, 2, 5, 8, 14}, {-3, -7, -10, -13, 2, 6, 9, 12},
+        {-2, -5, -8, -13, 1, 4, 7, 12}, {-2, -4, -6, -13, 1, 3, 5, 12},
+        {-3, -6, -8, -12, 2, 5, 7, 11}, {-3, -7, -9, -11, 2, 6, 8, 10},
+        {-4, -7, -8, -11, 3, 6, 7, 10}, {-3, -5, -8, -11, 2, 4, 7, 10},
+        {-2, -6, -8, -10, 1, 5, 7, 9}, {-2, -5, -8, -10, 1, 4, 7, 9},
+        {-2, -4, -8, -10, 1, 3, 7, 9}, {-2, -5, -7, -10, 1, 4, 6, 9},
+        {-3, -4, -7, -10, 2, 3, 6, 9}, {-1, -2, -3, -10, 0, 1, 2, 9},
+        {-4, -6, -8, -9, 3, 5, 7, 8}, {-3, -5, -7, -9, 2, 4, 6, 8}};
+    // Table 13 has a zero modifier, so a block of one alpha value is stored exactly.
+    private static final int EAC_FLAT_TABLE = 13, EAC_FLAT_INDEX = 4;
+
+    private TextureCompressor() {
+    }
+
+    /** Writes every variant of {@code image} next to each other in {@code dir}; width and height must be multiples of 8. */
+    static void writeVariants(BufferedImage image, File dir, String name) throws IOException {
+        if (image.getWidth() % 8 != 0 || image.getHeight() % 8 != 0) {
+            throw new GdxRuntimeException("Image " + name + " is " + image.getWidth() + "x" + image.getHeight()
+                + "; variants need both sides to be multiples of 8");
+        }
+        write(image, dir, name);
+        write(half(image), dir, name + ".half");
+    }
+
+    private static void write(BufferedImage image, File dir, String name) throws IOException {
+        ImageIO.write(image, "png", new File(dir, name + ".png"));
+        writeCompressed(image, dir, name);
+    }
+
+    /** Writes only the two compressed files, e.g. next to a PNG written by another tool; width and height must be multiples of 4. */
+    static void writeCompressed(BufferedImage image, File dir, String name) throws IOException {
+        int width = image.getWidth(), height = image.getHeight();
+        if (width % 4 != 0 || height % 4 != 0) {
+            throw new GdxRuntimeException("Image " + name + " is " + width + "x" + height
+                + "; compressed formats need both sides to be multiples of 4");
+        }
+        int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+        writeKtx(new File(dir, name + ".dxt5.zktx"), GL_COMPRESSED_RGBA_S3TC_DXT5, width, height, dxt5(argb, width, height));
+        writeKtx(new File(dir, name + ".etc2.zktx"), GL_COMPRESSED_RGBA8_ETC2_EAC, width, height, etc2(argb, width, height));
+    }
+
+    /** Averages each 2x2 square, weighting colors by alpha so transparent pixels don't darken edges. */
+    static BufferedImage half(BufferedImage image) {
+        int width = image.getWidth() / 2, height = image.getHeight() / 2;
+        BufferedImage half = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int a = 0, r = 0, g = 0, b = 0;
+                for (int i = 0; i < 4; i++) {
+                    int pixel = image.getRGB(x * 2 + (i & 1), y * 2 + (i >> 1));
+                    int alpha = pixel >>> 24;
+                    a += alpha;
+                    r += (pixel >> 16 & 0xff) * alpha;
+                    g += (pixel >> 8 & 0xff) * alpha;
+                    b += (pixel & 0xff) * alpha;
+                }
+                int pixel = a == 0 ? 0 : (a + 2) / 4 << 24 | (r + a / 2) / a << 16 | (g + a / 2) / a << 8 | (b + a / 2) / a;
+                half.setRGB(x, y, pixel);
+            }
+        }
+        return half;
+    }
+
+    private static void writeKtx(File file, int glInternalFormat, int width, int height, byte[] data) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(file))));
+        try {
+            // zktx: the size of the KTX data, then the data itself.
+            out.writeInt(KTX_HEADER_BYTES + 4 + data.length);
+            out.write(KTX_IDENTIFIER);
+            out.writeInt(0x04030201); // endianness: everything below is big-endian
+            out.writeInt(0); // glType: compressed
+            out.writeInt(1); // glTypeSize
+            out.writeInt(0); // glFormat: compressed
+            out.writeInt(glInternalFormat);
+            out.writeInt(GL_RGBA);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(0); // depth
+            out.writeInt(0); // array elements
+            out.writeInt(1); // faces
+            out.writeInt(1); // mipmap levels
+            out.writeInt(0); // key/value bytes
+            out.writeInt(data.length);
+            out.write(data);
+        } finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+    /** The 16 pixels of the block at {@code (bx, by)}, row by row. */
+    private static void block(int[] argb, int width, int bx, int by, int[] out) {
+        for (int i = 0; i < 16; i++) {
+            out[i] = argb[(by * 4 + (i >> 2)) * width + bx * 4 + (i & 3)];
+        }
+    }
+
+    static byte[] dxt5(int[] argb, int width, int height) {
+        byte[] data = new byte[width * height];
+        int[] pixels = new int[16];
+        int offset = 0;
+        for (int by = 0; by < height / 4; by++) {
+            for (int bx = 0; bx < width / 4; bx++) {
+                block(argb, width, bx, by, pixels);
+                dxt5Alpha(pixels, data, offset);
+                dxtColor(pixels, data, offset + 8);
+                offset += 16;
+            }
+        }
+        return data;
+    }
+
+    /** Eight-value alpha mode between the block's extremes; little-endian, three bits per pixel. */
+    private static void dxt5Alpha(int[] pixels, byte[] out, int offset) {
+        int max = 0, min = 255;
+        for (int pixel : pixels) {
+            int alpha = pixel >>> 24;
+            max = Math.max(max, alpha);
+            min = Math.min(min, alpha);
+        }
+        out[offset] = (byte) max;
+        out[offset + 1] = (byte) min;
+        long indices = 0;
+        if (max > min) {
+            for (int i = 0; i < 16; i++) {
+                // Index 0 is max, 1 is min, 2..7 step from max towards min.
+                int step = Math.round((max - (pixels[i] >>> 24)) * 7f / (max - min));
+                int index = step == 0 ? 0 : step == 7 ? 1 : step + 1;
+                indices |= (long) index << (3 * i);
+            }
+        }
+        for (int i = 0; i < 6; i++) {
+            out[offset + 2 + i] = (byte) (indices >>> (8 * i));
+        }
+    }
+
+    /** Four-color mode between the corners of the opaque pixels' bounding box, inset a little. */
+    private static void dxtColor(int[] pixels, byte[] out, int offset) {
+        int minR = 255, minG = 255, minB = 255, maxR = 0, maxG = 0, maxB = 0;
+        boolean any = false;
+        for (int pixel : pixels) {
+            if (pixel >>> 24 == 0) continue;
+            any = true;
+            int r = pixel >> 16 & 0xff, g = pixel >> 8 & 0xff, b = pixel & 0xff;
+            minR = Math.min(minR, r); minG = Math.min(minG, g); minB = Math.min(minB, b);
+            maxR = Math.max(maxR, r); maxG = Math.max(maxG, g); maxB = Math.max(maxB, b);
+        }
+        if (!any) {
+            minR = minG = minB = maxR = maxG = maxB = 0;
+        }
+        int insetR = (maxR - minR) >> 4, insetG = (maxG - minG) >> 4, insetB = (maxB - minB) >> 4;
+        int color0 = rgb565(maxR - insetR, maxG - insetG, maxB - insetB);
+        int color1 = rgb565(minR + insetR, minG + insetG, minB + insetB);
+        if (color0 < color1) {
+            int swap = color0;
+            color0 = color1;
+            color1 = swap;
+        }
+
+        int indices = 0;
+        if (color0 != color1) {
+            int[] palette = new int[12];
+            expand565(color0, palette, 0);
+            expand565(color1, palette, 3);
+            for (int c = 0; c < 3; c++) {
+                palette[6 + c] = (2 * palette[c] + palette[3 + c]) / 3;
+                palette[9 + c] = (palette[c] + 2 * palette[3 + c]) / 3;
+            }
+            for (int i = 0; i < 16; i++) {
+                int r = pixels[i] >> 16 & 0xff, g = pixels[i] >> 8 & 0xff, b = pixels[i] & 0xff;
+                int best = 0, bestError = Integer.MAX_VALUE;
+                for (int index = 0; index < 4; index++) {
+                    int dr = r - palette[index * 3], dg = g - palette[index * 3 + 1], db = b - palette[index * 3 + 2];
+                    int error = dr * dr + dg * dg + db * db;
+                    if (error < bestError) {
+                        best = index;
+                        bestError = error;
+                    }
+                }
+                indices |= best << (2 * i);
+            }
+        }
+        out[offset] = (byte) color0;
+        out[offset + 1] = (byte) (color0 >> 8);
+        out[offset + 2] = (byte) color1;
+        out[offset + 3] = (byte) (color1 >> 8);
+        for (int i = 0; i < 4; i++) {
+            out[offset + 4 + i] = (byte) (indices >>> (8 * i));
+        }
+    }
+
+    private static int rgb565(int r, int g, int b) {
+        return (r * 31 + 127) / 255 << 11 | (g * 63 + 127) / 255 << 5 | (b * 31 + 127) / 255;
+    }
+
+    private static void expand565(int color, int[] out, int offset) {
+        int r = color >> 11 & 31, g = color >> 5 & 63, b = color & 31;
+        out[offset] = r << 3 | r >> 2;
+        out[offset + 1] = g << 2 | g >> 4;
+        out[offset + 2] = b << 3 | b >> 2;
+    }
+
+    static byte[] etc2(int[] argb, int width, int height) {
+        // Transparent pixels take their block's average opaque color, so the color encoder spends
+        // nothing on pixels that are never seen.
+        Pixmap rgb = new Pixmap(width, height, Pixmap.Format.RGB888);
+        int[] pixels = new int[16];
+        try {
+            for (int by = 0; by < height / 4; by++) {
+                for (int bx = 0; bx < width / 4; bx++) {
+                    block(argb, width, bx, by, pixels);
+                    int fill = averageOpaque(pixels);
+                    for (int i = 0; i < 16; i++) {
+                        int pixel = pixels[i] >>> 24 == 0 ? fill : pixels[i];
+                        rgb.drawPixel(bx * 4 + (i & 3), by * 4 + (i >> 2), pixel << 8 | 0xff);
+                    }
+                }
+            }
+            ETC1.ETC1Data color = ETC1.encodeImage(rgb);
+            try {
+                ByteBuffer blocks = color.compressedData;
+                byte[] data = new byte[width * height];
+                int offset = 0;
+                for (int by = 0; by < height / 4; by++) {
+                    for (int bx = 0; bx < width / 4; bx++) {
+                        block(argb, width, bx, by, pixels);
+                        eacAlpha(pixels, data, offset);
+                        int source = color.dataOffset + (by * (width / 4) + bx) * 8;
+                        for (int i = 0; i < 8; i++) {
+                            data[offset + 8 + i] = blocks.get(source + i);
+                        }
+                        offset += 16;
+                    }
+                }
+                return data;
+            } finally {
+                color.dispose();
+            }
+        } finally {
+            rgb.dispose();
+        }
+    }
+
+    private static int averageOpaque(int[] pixels) {
+        int count = 0, r = 0, g = 0, b = 0;
+        for (int pixel : pixels) {
+            if (pixel >>> 24 == 0) continue;
+            count++;
+            r += pixel >> 16 & 0xff;
+            g += pixel >> 8 & 0xff;
+            b += pixel & 0xff;
+        }
+        return count == 0 ? 0 : (r / count) << 16 | (g / count) << 8 | b / count;
+    }
+
+    /**
+     * Picks the base, multiplier and table that reproduce the block's alpha best; big-endian, with
+     * three-bit indices running down each column in turn.
+     */
+    private static void eacAlpha(int[] pixels, byte[] out, int offset) {
+        int min = 255, max = 0;
+        for (int pixel : pixels) {
+            min = Math.min(min, pixel >>> 24);
+            max = Math.max(max, pixel >>> 24);
+        }
+        int bestBase = min, bestMultiplier = 1, bestTable = EAC_FLAT_TABLE;
+        if (max > min) {
+            long bestError = Long.MAX_VALUE;
+            for (int table = 0; table < EAC_MODIFIERS.length && bestError > 0; table++) {
+                int[] modifiers = EAC_MODIFIERS[table];
+                for (int multiplier = 1; multiplier <= 15; multiplier++) {
+                    // Centre the table's range on the block's.
+                    float low = modifiers[3] * multiplier, high = modifiers[7] * multiplier;
+                    int centre = Math.round((min + max) / 2f - (low + high) / 2);
+                    for (int base = Math.max(0, centre - 2); base <= Math.min(255, centre + 2); base++) {
+                        long error = 0;
+                        for (int i = 0; i < 16 && error < bestError; i++) {
+                            error += eacError(pixels[i] >>> 24, base, multiplier, modifiers);
+                        }
+                        if (error < bestError) {
+                            bestError = error;
+                            bestBase = base;
+                            bestMultiplier = multiplier;
+                            bestTable = table;
+                        }
+                    }
+                }
+            }
+        }
+
+        int[] modifiers = EAC_MODIFIERS[bestTable];
+        long bits = (long) bestBase << 56 | (long) bestMultiplier << 52 | (long) bestTable << 48;
+        for (int x = 0; x < 4; x++) {
+            for (int y = 0; y < 4; y++) {
+                int alpha = pixels[y * 4 + x] >>> 24;
+                int best = max > min ? 0 : EAC_FLAT_INDEX;
+                if (max > min) {
+                    int bestError = Integer.MAX_VALUE;
+                    for (int index = 0; index < 8; index++) {
+                        int error = Math.abs(alpha - eacValue(bestBase, bestMultiplier, modifiers[index]));
+                        if (error < bestError) {
+                            best = index;
+                            bestError = error;
+                        }
+                    }
+                }
+                bits |= (long) best << (45 - 3 * (x * 4 + y));
+            }
+        }
+        for (int i = 0; i < 8; i++) {
+            out[offset + i] = (byte) (bits >>> (56 - 8 * i));
+        }
+    }
+
+    private static int eacError(int alpha, int base, int multiplier, int[] modifiers) {
+        int best = Integer.MAX_VALUE;
+        for (int modifier : modifiers) {
+            int error = Math.abs(alpha - eacValue(base, multiplier, modifier));
+            best = Math.min(best, error * error);
+        }
+        return best;
+    }
+
+    private static int eacValue(int base, int multiplier, int modifier) {
+        return Math.max(0, Math.min(255, base + modifier * multiplier));
+    }
+}
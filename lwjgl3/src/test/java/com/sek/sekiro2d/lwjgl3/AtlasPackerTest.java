@@ -0,0 +1,114 @@
+package com.sek.sekiro2d.lwjgl3;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.StreamUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bakes the game's font into an atlas and reads the result back the way {@code GameAssets.font}
+ * does: glyph metrics from the {@code .fnt} next to the atlas, glyph pixels from its region.
+ */
+public class AtlasPackerTest {
+    private static final String FONT = "fonts/DejaVuSans.ttf";
+    private static final String FONTS_JSON = "{\n"
+        + "  \"small\": { \"file\": \"" + FONT + "\", \"size\": 16 },\n"
+        + "  \"large\": { \"file\": \"" + FONT + "\", \"size\": 32 }\n"
+        + "}\n";
+    // Everything the HUD, menu and game over screen print.
+    private static final String TEXT = "Player Health: 100 Enemy Health: 0 Play Again? Game Over!";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File pack() throws IOException {
+        File assets = folder.newFolder("assets");
+        new FileHandle(new File(assets, AtlasPacker.FONTS)).writeString(FONTS_JSON, false, "UTF-8");
+        copyResource(FONT, new File(assets, FONT));
+        BufferedImage sprite = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+        sprite.setRGB(3, 3, 0xffffffff);
+        File sprites = new File(assets, "sprites");
+        sprites.mkdirs();
+        ImageIO.write(sprite, "png", new File(sprites, "dot.png"));
+
+        File output = folder.newFolder("atlas");
+        AtlasPacker.pack(assets, output, "test", "sprites");
+        return output;
+    }
+
+    @Test
+    public void bakedFontsLoadFromTheAtlas() throws IOException {
+        File output = pack();
+        TextureAtlas.TextureAtlasData atlas = new TextureAtlas.TextureAtlasData(
+            new FileHandle(new File(output, "test.atlas")), new FileHandle(output), false);
+        assertNotNull(region(atlas, "sprites/dot"));
+
+        BitmapFont.BitmapFontData small = checkFont(atlas, output, "small");
+        BitmapFont.BitmapFontData large = checkFont(atlas, output, "large");
+        assertTrue("32px line not taller than 16px", large.lineHeight > small.lineHeight * 1.5f);
+    }
+
+    /** Every glyph of {@link #TEXT} must lie inside the font's region and have ink there. */
+    private static BitmapFont.BitmapFontData checkFont(TextureAtlas.TextureAtlasData atlas, File output, String name)
+        throws IOException {
+        TextureAtlas.TextureAtlasData.Region region = region(atlas, "fonts/" + name);
+        assertNotNull("No region for font " + name, region);
+        BufferedImage page = ImageIO.read(region.page.textureFile.file());
+        BitmapFont.BitmapFontData data = new BitmapFont.BitmapFontData(new FileHandle(new File(output, name + ".fnt")), false);
+
+        for (int i = 0; i < TEXT.length(); i++) {
+            char c = TEXT.charAt(i);
+            BitmapFont.Glyph glyph = data.getGlyph(c);
+            assertNotNull(name + " has no glyph for '" + c + "'", glyph);
+            if (glyph.width == 0 || c == ' ') continue;
+            assertTrue(name + " glyph '" + c + "' outside its region",
+                glyph.srcX + glyph.width <= region.width && glyph.srcY + glyph.height <= region.height);
+            assertTrue(name + " glyph '" + c + "' is blank",
+                hasInk(page, region.left + glyph.srcX, region.top + glyph.srcY, glyph.width, glyph.height));
+        }
+        return data;
+    }
+
+    private static TextureAtlas.TextureAtlasData.Region region(TextureAtlas.TextureAtlasData atlas, String name) {
+        for (TextureAtlas.TextureAtlasData.Region region : atlas.getRegions()) {
+            if (region.name.equals(name)) return region;
+        }
+        return null;
+    }
+
+    private static boolean hasInk(BufferedImage page, int x, int y, int width, int height) {
+        for (int row = y; row < y + height; row++) {
+            for (int column = x; column < x + width; column++) {
+                if ((page.getRGB(column, row) >>> 24) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    private static void copyResource(String name, File target) throws IOException {
+        InputStream in = AtlasPackerTest.class.getResourceAsStream("/" + name);
+        assertNotNull("Missing resource " + name, in);
+        target.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(target);
+        try {
+            StreamUtils.copyStream(in, out);
+        } finally {
+            StreamUtils.closeQuietly(in);
+            StreamUtils.closeQuietly(out);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.sek.sekiro2d.lwjgl3;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.sek.sekiro2d.level.Level;
+import com.sek.sekiro2d.level.LevelChunk;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Packs a small map and reads it back the way the game does. */
+public class LevelPackerTest {
+    // 320 x 160 world units in chunks of 128: two full chunks and a 64 wide one with no platforms.
+    // The first platform crosses the edge at 128, the second ends exactly on the edge at 256.
+    private static final String MAP = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<map width=\"10\" height=\"5\" tilewidth=\"32\" tileheight=\"32\">\n"
+        + " <properties><property name=\"chunkWidth\" type=\"int\" value=\"128\"/></properties>\n"
+        + " <objectgroup name=\"platforms\">\n"
+        + "  <object id=\"1\" x=\"96\" y=\"100\" width=\"64\" height=\"20\"/>\n"
+        + "  <object id=\"2\" x=\"200\" y=\"40\" width=\"56\" height=\"20\"/>\n"
+        + " </objectgroup>\n"
+        + "</map>\n";
+    private static final float FIRST_TOP = 60;
+    private static final float SECOND_TOP = 120;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    private File pack() throws IOException {
+        File map = folder.newFile("test.tmx");
+        new FileHandle(map).writeString(MAP, false, "UTF-8");
+        File output = new File(folder.getRoot(), "test");
+        LevelPacker.pack(map, output, new BufferedImage(16, 8, BufferedImage.TYPE_INT_ARGB));
+        return output;
+    }
+
+    @Test
+    public void indexRoundTrips() throws IOException {
+        File output = pack();
+        Level level = Level.load(new FileHandle(output), 1024);
+        try {
+            assertEquals(3, level.getChunkCount());
+            assertEquals(128, level.getChunkWidth(), 0);
+            assertEquals(0, level.getArtY(), 0);
+            assertEquals(160, level.getArtHeight(), 0);
+            assertTrue(level.hasArt(0));
+            assertTrue(level.hasArt(1));
+            assertFalse(level.hasArt(2));
+            assertTrue(new File(output, Level.chunkName(0) + ".png").exists());
+            assertFalse(new File(output, Level.chunkName(2) + ".png").exists());
+        } finally {
+            level.dispose();
+        }
+    }
+
+    @Test
+    public void platformsAreSplitAtChunkEdges() throws IOException {
+        File output = pack();
+        Rectangle platform = new Rectangle();
+
+        LevelChunk first = LevelChunk.read(new FileHandle(new File(output, Level.chunkName(0) + ".bin")), 0);
+        assertEquals(1, first.getPlatformCount());
+        assertEquals(new Rectangle(96, 40, 32, 20), first.getPlatform(0, platform));
+
+        LevelChunk second = LevelChunk.read(new FileHandle(new File(output, Level.chunkName(1) + ".bin")), 1);
+        assertEquals(2, second.getPlatformCount());
+        assertEquals(new Rectangle(128, 40, 32, 20), second.getPlatform(0, platform));
+        assertEquals(new Rectangle(200, 100, 56, 20), second.getPlatform(1, platform));
+
+        LevelChunk third = LevelChunk.read(new FileHandle(new File(output, Level.chunkName(2) + ".bin")), 2);
+        assertEquals(0, third.getPlatformCount());
+    }
+
+    @Test
+    public void supportsAndLandingAtChunkEdges() throws IOException {
+        Level level = Level.load(new FileHandle(pack()), 1024);
+        try {
+            // Nothing is read from a chunk until it is required.
+            assertFalse(level.supports(100, FIRST_TOP));
+            level.beginStep();
+            for (int i = 0; i < level.getChunkCount(); i++) {
+                level.require(i);
+            }
+
+            assertFalse(level.supports(95.9f, FIRST_TOP));
+            assertTrue(level.supports(96, FIRST_TOP));
+            assertTrue(level.supports(127.9f, FIRST_TOP));
+            assertTrue(level.supports(128, FIRST_TOP));
+            assertTrue(level.supports(159.9f, FIRST_TOP));
+            assertFalse(level.supports(160, FIRST_TOP));
+            assertTrue(level.supports(255.9f, SECOND_TOP));
+            assertFalse(level.supports(256, SECOND_TOP));
+
+            assertEquals(FIRST_TOP, level.landing(127.9f, 100, 50), 0);
+            assertEquals(FIRST_TOP, level.landing(128, 100, 50), 0);
+            assertEquals(FIRST_TOP, level.landing(128, FIRST_TOP, 50), 0);
+            assertTrue(Float.isNaN(level.landing(128, 59, 0)));
+            assertEquals(SECOND_TOP, level.landing(255.9f, 130, 110), 0);
+            assertTrue(Float.isNaN(level.landing(256, 130, 110)));
+            // Outside the level there is only the floor.
+            assertTrue(Float.isNaN(level.landing(-1, 130, 0)));
+            assertTrue(Float.isNaN(level.landing(320, 130, 0)));
+        } finally {
+            level.dispose();
+        }
+    }
+}